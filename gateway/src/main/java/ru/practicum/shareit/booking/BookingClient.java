@@ -11,6 +11,8 @@ import ru.practicum.shareit.booking.dto.BookingRequestDTO;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,6 +33,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> addBookings(int userId, List<BookingRequestDTO> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> getBooking(int userId, int bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -39,23 +45,34 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<Object> approveBookings(int userId, List<Integer> bookingIds, boolean approved) {
+        return patch("/batch?approved=" + approved, userId, bookingIds);
+    }
+
     public ResponseEntity<Object> getAllBookingsOfUserByState(
-            int userId, BookingState state, Integer from, Integer size
+            int userId, BookingState state, Integer from, Integer size, String after
     ) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", (long) userId, parameters);
+        return getBookings("", userId, state, from, size, after);
+    }
+
+    public ResponseEntity<Object> getAllBookingsOfUserItems(
+            int userId, BookingState state, int from, int size, String after
+    ) {
+        return getBookings("/owner", userId, state, from, size, after);
     }
 
-    public ResponseEntity<Object> getAllBookingsOfUserItems(int userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    private ResponseEntity<Object> getBookings(
+            String path, int userId, BookingState state, int from, int size, String after
+    ) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", (long) userId, parameters);
+        ));
+        if (after == null)
+            return get(path + "?state={state}&from={from}&size={size}", (long) userId, parameters);
+
+        parameters.put("after", after);
+        return get(path + "?state={state}&from={from}&size={size}&after={after}", (long) userId, parameters);
     }
 }
@@ -10,8 +10,12 @@ import ru.practicum.shareit.booking.dto.BookingRequestDTO;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.user.auth.AuthConstant.OWNER_ID_HEADER;
 
@@ -21,6 +25,8 @@ import static ru.practicum.shareit.user.auth.AuthConstant.OWNER_ID_HEADER;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -32,6 +38,15 @@ public class BookingController {
         return bookingClient.addBooking(ownerId, bookingDTO);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(
+            @RequestHeader(OWNER_ID_HEADER) @Positive Integer ownerId,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid BookingRequestDTO> bookingDTOs
+    ) {
+        log.info("Создание {} бронирований пользователя {}", bookingDTOs.size(), ownerId);
+        return bookingClient.addBookings(ownerId, bookingDTOs);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(
             @RequestHeader(OWNER_ID_HEADER) @Positive Integer ownerId,
@@ -42,6 +57,16 @@ public class BookingController {
         return bookingClient.approveBooking(ownerId, bookingId, isApproved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBookings(
+            @RequestHeader(OWNER_ID_HEADER) @Positive Integer ownerId,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull @Positive Integer> bookingIds,
+            @RequestParam("approved") Boolean isApproved
+    ) {
+        log.info("Запрос на одобрение броней " + bookingIds);
+        return bookingClient.approveBookings(ownerId, bookingIds, isApproved);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(
             @RequestHeader(OWNER_ID_HEADER) @Positive Integer ownerId,
@@ -56,12 +81,13 @@ public class BookingController {
             @Positive Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "20") @Positive Integer size
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String after
     ) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
 
-        return bookingClient.getAllBookingsOfUserByState(ownerId, bookingState, from, size);
+        return bookingClient.getAllBookingsOfUserByState(ownerId, bookingState, from, size, after);
     }
 
     @GetMapping("/owner")
@@ -70,11 +96,12 @@ public class BookingController {
             @Positive Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "20") @Positive Integer size
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String after
     ) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
 
-        return bookingClient.getAllBookingsOfUserItems(ownerId, bookingState, from, size);
+        return bookingClient.getAllBookingsOfUserItems(ownerId, bookingState, from, size, after);
     }
 }
@@ -11,6 +11,7 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDTO;
 import ru.practicum.shareit.item.dto.ItemDTO;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -47,13 +48,42 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAvailableItemsByName(int userId, String text, int from, int size) {
+    public ResponseEntity<Object> getAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", (long) userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(int userId, String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", (long) userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailableItemsByName(
+            int userId, String text, LocalDateTime start, LocalDateTime end, int from, int size
+    ) {
+        if (start == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size
+            );
+            return get("/search?text={text}&from={from}&size={size}", (long) userId, parameters);
+        }
+
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "start", start.toString(),
+                "end", end.toString(),
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", (long) userId, parameters);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", (long) userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(int userId, int itemId, CommentDTO commentDTO) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -11,8 +12,12 @@ import ru.practicum.shareit.item.dto.CommentDTO;
 import ru.practicum.shareit.item.dto.ItemDTO;
 
 import javax.validation.Valid;
+import javax.validation.ValidationException;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.user.auth.AuthConstant.OWNER_ID_HEADER;
 
@@ -21,6 +26,7 @@ import static ru.practicum.shareit.user.auth.AuthConstant.OWNER_ID_HEADER;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final int MAX_SUGGESTIONS = 50;
 
     private final ItemClient itemClient;
 
@@ -65,14 +71,40 @@ public class ItemController {
         return itemClient.getAllItemsByOwnerId(ownerId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @RequestHeader(OWNER_ID_HEADER) @Positive Integer userId,
+            @PathVariable("itemId") @Positive Integer itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(
+            @RequestHeader(OWNER_ID_HEADER) @Positive Integer userId,
+            @RequestParam @NotBlank String prefix,
+            @RequestParam(defaultValue = "10") @Positive @Max(MAX_SUGGESTIONS) Integer size
+    ) {
+        return itemClient.suggestItemNames(userId, prefix, size);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> getAvailableItemsByName(
             @RequestHeader(OWNER_ID_HEADER) @Positive Integer ownerId,
             @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "20") @Positive Integer size
     ) {
-        return itemClient.getAvailableItemsByName(ownerId, text, from, size);
+        if ((start == null) != (end == null))
+            throw new ValidationException("Начало и окончание периода задаются вместе.");
+        if (start != null && !start.isBefore(end))
+            throw new ValidationException("Начало периода должно быть раньше его окончания.");
+
+        return itemClient.getAvailableItemsByName(ownerId, text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
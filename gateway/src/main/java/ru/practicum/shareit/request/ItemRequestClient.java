@@ -10,6 +10,7 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDTO;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -38,10 +39,21 @@ public class ItemRequestClient extends BaseClient {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(int userId, int from, int size) {
+    public ResponseEntity<Object> getRequestMatches(int userId, int size) {
         Map<String, Object> parameters = Map.of(
+                "size", size
+        );
+        return get("/matches?size={size}", (long) userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAllRequests(int userId, int from, int size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
-                "size", size);
-        return get("/all?from={from}&size={size}", (long) userId, parameters);
+                "size", size));
+        if (after == null)
+            return get("/all?from={from}&size={size}", (long) userId, parameters);
+
+        parameters.put("after", after);
+        return get("/all?from={from}&size={size}&after={after}", (long) userId, parameters);
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDTO;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
@@ -19,6 +20,7 @@ import static ru.practicum.shareit.user.auth.AuthConstant.OWNER_ID_HEADER;
 @Controller
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private static final int MAX_MATCHES = 50;
 
     private final ItemRequestClient itemRequestClient;
 
@@ -36,6 +38,14 @@ public class ItemRequestController {
         return itemRequestClient.addRequest(requestorId, itemRequestDTO);
     }
 
+    @GetMapping("/matches")
+    public ResponseEntity<Object> getRequestMatches(
+            @RequestHeader(OWNER_ID_HEADER) @Positive Integer ownerId,
+            @RequestParam(defaultValue = "20") @Positive @Max(MAX_MATCHES) Integer size
+    ) {
+        return itemRequestClient.getRequestMatches(ownerId, size);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getRequest(
             @RequestHeader(OWNER_ID_HEADER) @Positive Integer requestorId, @PathVariable Integer requestId
@@ -54,9 +64,10 @@ public class ItemRequestController {
     public ResponseEntity<Object> getAllRequests(
             @RequestHeader(OWNER_ID_HEADER) @Positive Integer requestorId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "20") @Positive Integer size
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String after
     ) {
-        return itemRequestClient.getAllRequests(requestorId, from, size);
+        return itemRequestClient.getAllRequests(requestorId, from, size, after);
     }
 
 }
@@ -2,16 +2,23 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDTO;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDTO;
 import ru.practicum.shareit.booking.dto.BookingDTO;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.SeekCursor;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static ru.practicum.shareit.user.auth.AuthConstant.OWNER_ID_HEADER;
 
@@ -40,6 +47,20 @@ public class BookingController {
         return BookingMapper.toBookingDTO(addedBooking);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDTO> addBookings(
+            @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
+            @RequestBody List<BookingDTO> bookingDTOs
+    ) {
+        List<BookingBatchResult> results = bookingService.addBookings(
+                bookingDTOs.stream().map(BookingMapper::toBooking).collect(Collectors.toList()), ownerId
+        );
+
+        return IntStream.range(0, results.size())
+                .mapToObj(index -> BookingMapper.toBookingBatchResultDTO(index, results.get(index)))
+                .collect(Collectors.toList());
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDTO approveBooking(
             @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
@@ -51,6 +72,19 @@ public class BookingController {
         return BookingMapper.toBookingDTO(booking);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingApprovalResultDTO> approveBookings(
+            @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
+            @RequestBody List<Integer> bookingIds,
+            @RequestParam("approved") Boolean isApproved
+    ) {
+        List<BookingBatchResult> results = bookingService.approveBookings(bookingIds, ownerId, isApproved);
+
+        return IntStream.range(0, results.size())
+                .mapToObj(index -> BookingMapper.toBookingApprovalResultDTO(bookingIds.get(index), results.get(index)))
+                .collect(Collectors.toList());
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDTO getBooking(
             @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
@@ -62,29 +96,49 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDTO> getAllBookingsOfUserByState(
+    public ResponseEntity<List<BookingDTO>> getAllBookingsOfUserByState(
             @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String after
     ) {
-        List<Booking> allBookings = bookingService
-                .getAllBookingsOfUserByState(ownerId, BookingState.valueOf(state), from, size);
+        Slice<Booking> allBookings = after == null ?
+                bookingService.getAllBookingsOfUserByState(ownerId, BookingState.valueOf(state), from, size) :
+                bookingService.getAllBookingsOfUserByState(
+                        ownerId, BookingState.valueOf(state), SeekCursor.decode(after), size
+                );
 
-        return allBookings.stream().map(BookingMapper::toBookingDTO).collect(Collectors.toList());
+        return toPageResponse(allBookings);
     }
 
     @GetMapping("/owner")
-    public List<BookingDTO> getAllBookingsOfUserItems(
+    public ResponseEntity<List<BookingDTO>> getAllBookingsOfUserItems(
             @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String after
     ) {
-        List<Booking> allBookings = bookingService
-                .getAllBookingsOfUserItems(ownerId, BookingState.valueOf(state), from, size);
+        Slice<Booking> allBookings = after == null ?
+                bookingService.getAllBookingsOfUserItems(ownerId, BookingState.valueOf(state), from, size) :
+                bookingService.getAllBookingsOfUserItems(
+                        ownerId, BookingState.valueOf(state), SeekCursor.decode(after), size
+                );
 
-        return allBookings.stream().map(BookingMapper::toBookingDTO).collect(Collectors.toList());
+        return toPageResponse(allBookings);
     }
 
+    private ResponseEntity<List<BookingDTO>> toPageResponse(Slice<Booking> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (bookings.hasNext()) {
+            Booking lastBooking = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(
+                    SeekCursor.NEXT_CURSOR_HEADER, new SeekCursor(lastBooking.getStart(), lastBooking.getId()).encode()
+            );
+        }
+
+        return response.body(bookings.stream().map(BookingMapper::toBookingDTO).collect(Collectors.toList()));
+    }
 }
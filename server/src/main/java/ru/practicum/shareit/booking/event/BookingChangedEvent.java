@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется после создания бронирования или изменения его статуса.
+ */
+@Value
+public class BookingChangedEvent {
+    int bookingId;
+    int itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(
+                booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getStatus()
+        );
+    }
+}
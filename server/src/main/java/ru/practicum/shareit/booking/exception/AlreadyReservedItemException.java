@@ -5,4 +5,8 @@ public class AlreadyReservedItemException extends RuntimeException {
     public AlreadyReservedItemException(int itemId) {
         super("Бронирование не может быть создано, т.к. вещь id= " + itemId + " забронирована!");
     }
+
+    public AlreadyReservedItemException() {
+        super("Бронирования не могут быть созданы, т.к. вещь уже забронирована!");
+    }
 }
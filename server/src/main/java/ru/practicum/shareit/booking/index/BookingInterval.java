@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+    int bookingId;
+    LocalDateTime start;
+    LocalDateTime end;
+}
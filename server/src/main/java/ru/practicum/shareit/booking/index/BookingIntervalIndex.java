@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш лент бронирований по вещам для быстрого отклонения пересекающихся бронирований.
+ * Лента вещи загружается из таблицы bookings при первом обращении, затем
+ * обновляется по событиям бронирований и перечитывается по истечении expire-after.
+ */
+@Component
+public class BookingIntervalIndex {
+    public static final List<BookingStatus> INACTIVE_BOOKING_STATUSES =
+            List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final long expireAfterNanos;
+    private final Map<Integer, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingIntervalIndex(
+            BookingRepository bookingRepository,
+            @Value("${shareit.booking.interval-index.enabled:true}") boolean enabled,
+            @Value("${shareit.booking.interval-index.expire-after:5m}") Duration expireAfter
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.expireAfterNanos = expireAfter.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasOverlap(int itemId, LocalDateTime start, LocalDateTime end) {
+        return getTimeline(itemId).overlaps(start, end);
+    }
+
+    public ItemTimeline getTimeline(int itemId) {
+        long now = System.nanoTime();
+
+        return timelines.compute(itemId, (id, timeline) ->
+                timeline == null || now - timeline.getLoadedAt() > expireAfterNanos ? load(id, now) : timeline
+        );
+    }
+
+    public void evict(int itemId) {
+        timelines.remove(itemId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ItemTimeline timeline = timelines.get(event.getItemId());
+        if (timeline == null)
+            return;
+
+        if (INACTIVE_BOOKING_STATUSES.contains(event.getStatus()))
+            timeline.remove(event.getBookingId());
+        else
+            timeline.put(event.getBookingId(), event.getStart(), event.getEnd());
+    }
+
+    private ItemTimeline load(int itemId, long now) {
+        return new ItemTimeline(
+                bookingRepository.findIntervalsByItemIdAndStatusNotIn(itemId, INACTIVE_BOOKING_STATUSES), now
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Свободный промежуток ленты вещи, границы включены.
+ */
+@Value
+public class FreeInterval {
+    LocalDateTime start;
+    LocalDateTime end;
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Отсортированная по времени начала лента активных бронирований одной вещи.
+ * Время хранится в микросекундах эпохи, границы интервалов включены.
+ * maxEnds[i] - максимальное время окончания среди первых i + 1 интервалов,
+ * что позволяет проверять пересечение бинарным поиском.
+ */
+public final class ItemTimeline {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final long loadedAt;
+    private int[] ids;
+    private long[] starts;
+    private long[] ends;
+    private long[] maxEnds;
+    private int size;
+
+    ItemTimeline(Collection<BookingInterval> intervals, long loadedAt) {
+        this.loadedAt = loadedAt;
+        int capacity = Math.max(INITIAL_CAPACITY, intervals.size());
+        ids = new int[capacity];
+        starts = new long[capacity];
+        ends = new long[capacity];
+        maxEnds = new long[capacity];
+
+        intervals.forEach(interval -> insert(
+                interval.getBookingId(), toEpochMicros(interval.getStart()), toEpochMicros(interval.getEnd())
+        ));
+    }
+
+    public static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    public static LocalDateTime fromEpochMicros(long epochMicros) {
+        long seconds = Math.floorDiv(epochMicros, 1_000_000);
+        int nanos = (int) Math.floorMod(epochMicros, 1_000_000) * 1_000;
+
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        long from = toEpochMicros(start);
+        int last = lastStartingNotAfter(toEpochMicros(end));
+
+        return last >= 0 && maxEnds[last] >= from;
+    }
+
+    /**
+     * Свободные промежутки внутри [from, to]. Границы промежутков отстоят от соседних бронирований
+     * на одну микросекунду, поэтому промежуток можно забронировать целиком.
+     */
+    public synchronized List<FreeInterval> freeIntervals(LocalDateTime from, LocalDateTime to) {
+        long cursor = toEpochMicros(from);
+        long until = toEpochMicros(to);
+        List<FreeInterval> intervals = new ArrayList<>();
+
+        for (int i = firstEndingNotBefore(cursor); i < size && starts[i] <= until && cursor <= until; i++) {
+            if (ends[i] < cursor)
+                continue;
+            if (starts[i] > cursor)
+                intervals.add(new FreeInterval(fromEpochMicros(cursor), fromEpochMicros(starts[i] - 1)));
+            cursor = ends[i] + 1;
+        }
+        if (cursor <= until)
+            intervals.add(new FreeInterval(fromEpochMicros(cursor), fromEpochMicros(until)));
+
+        return intervals;
+    }
+
+    synchronized void put(int bookingId, LocalDateTime start, LocalDateTime end) {
+        removeById(bookingId);
+        insert(bookingId, toEpochMicros(start), toEpochMicros(end));
+    }
+
+    synchronized void remove(int bookingId) {
+        removeById(bookingId);
+    }
+
+    private void insert(int bookingId, long start, long end) {
+        if (size == ids.length)
+            grow();
+
+        int position = lastStartingNotAfter(start) + 1;
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        ids[position] = bookingId;
+        starts[position] = start;
+        ends[position] = end;
+        size++;
+
+        recomputeMaxEnds(position);
+    }
+
+    private void removeById(int bookingId) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == bookingId) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                size--;
+                recomputeMaxEnds(i);
+                return;
+            }
+        }
+    }
+
+    private int lastStartingNotAfter(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= time)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+        return high;
+    }
+
+    private int firstEndingNotBefore(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] < time)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    private void recomputeMaxEnds(int from) {
+        for (int i = from; i < size; i++)
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        maxEnds = Arrays.copyOf(maxEnds, capacity);
+    }
+}
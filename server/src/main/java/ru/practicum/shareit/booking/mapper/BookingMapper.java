@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDTO;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDTO;
 import ru.practicum.shareit.booking.dto.BookingDTO;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 @UtilityClass
@@ -26,6 +30,23 @@ public class BookingMapper {
                 .start(bookingDTO.getStart())
                 .end(bookingDTO.getEnd())
                 .status(bookingDTO.getStatus())
+                .item(bookingDTO.getItemId() != null ? Item.builder().id(bookingDTO.getItemId()).build() : null)
+                .build();
+    }
+
+    public static BookingBatchResultDTO toBookingBatchResultDTO(int index, BookingBatchResult result) {
+        return BookingBatchResultDTO.builder()
+                .index(index)
+                .booking(result.isSuccess() ? toBookingDTO(result.getBooking()) : null)
+                .error(result.getError())
+                .build();
+    }
+
+    public static BookingApprovalResultDTO toBookingApprovalResultDTO(int bookingId, BookingBatchResult result) {
+        return BookingApprovalResultDTO.builder()
+                .bookingId(bookingId)
+                .status(result.isSuccess() ? result.getBooking().getStatus() : null)
+                .error(result.getError())
                 .build();
     }
 }
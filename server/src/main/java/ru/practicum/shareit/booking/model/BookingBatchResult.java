@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат создания одного бронирования из пакета: созданное бронирование либо причина отказа.
+ */
+@Data
+@AllArgsConstructor
+public class BookingBatchResult {
+    private Booking booking;
+    private String error;
+
+    public static BookingBatchResult success(Booking booking) {
+        return new BookingBatchResult(booking, null);
+    }
+
+    public static BookingBatchResult failure(String error) {
+        return new BookingBatchResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return booking != null;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+/**
+ * Ограничение-исключение ex_booking_item_during из schema-postgresql.sql,
+ * запрещающее пересекающиеся активные бронирования одной вещи.
+ */
+@UtilityClass
+public class BookingOverlapConstraint {
+    public static final String NAME = "ex_booking_item_during";
+
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    public static boolean isViolatedBy(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && isExclusionViolation((SQLException) cause))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isExclusionViolation(SQLException e) {
+        // ошибки пакетной вставки приходят цепочкой через getNextException
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (EXCLUSION_VIOLATION_SQL_STATE.equals(next.getSQLState()))
+                return true;
+        }
+        return false;
+    }
+}
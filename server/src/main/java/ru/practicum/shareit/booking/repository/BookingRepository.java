@@ -1,88 +1,141 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Booking> findAllByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?3 " +
+            "WHERE b.id IN (?1) " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.item IN (SELECT it FROM Item it WHERE it.owner.id = ?2)"
+    )
+    int updateStatusOfWaitingByIdInAndItemOwnerId(Collection<Integer> ids, int ownerId, BookingStatus status);
+
+    List<Booking> findAllByStatusAndStartBefore(BookingStatus status, LocalDateTime start, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.status IN (?1) AND b.end < ?2")
+    List<Integer> findIdsByStatusInAndEndBefore(List<BookingStatus> statuses, LocalDateTime end, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?2 WHERE b.id IN (?1) AND b.status = ?3")
+    int updateStatusByIdInAndStatus(Collection<Integer> ids, BookingStatus status, BookingStatus currentStatus);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN (?1)")
+    int deleteAllByIdIn(Collection<Integer> ids);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
             int bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable
     );
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(int bookerId, LocalDateTime start, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(int bookerId, LocalDateTime start, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
             int bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable
     );
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByBookerIdAndStatusOrderByStartDescIdDesc(
             int bookerId, BookingStatus bookingStatus, Pageable pageable
     );
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(int bookerId, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByBookerIdOrderByStartDescIdDesc(int bookerId, Pageable pageable);
 
-    List<Booking> findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
-            List<Integer> itemIds, LocalDateTime start, LocalDateTime end, Pageable pageable
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+            int ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable
     );
 
-    List<Booking> findAllByItemIdInAndStartAfterOrderByStartDesc(
-            List<Integer> itemIds, LocalDateTime start, Pageable pageable
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
+            int ownerId, LocalDateTime start, Pageable pageable
     );
 
-    List<Booking> findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(
-            List<Integer> itemIds, LocalDateTime start, LocalDateTime end, Pageable pageable
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
+            int ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable
     );
 
-    List<Booking> findAllByItemIdInAndStatusOrderByStartDesc(
-            List<Integer> itemIds, BookingStatus bookingStatus, Pageable pageable
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+            int ownerId, BookingStatus bookingStatus, Pageable pageable
     );
 
-    List<Booking> findAllByItemIdInOrderByStartDesc(List<Integer> itemIds, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findAllByItemOwnerIdOrderByStartDescIdDesc(int ownerId, Pageable pageable);
 
     @Query("FROM Booking b " +
             "WHERE b.item.id = ?1 " +
-            "AND (b.start BETWEEN ?2 AND ?3 " +
-            "OR b.end BETWEEN  ?2 AND ?3) " +
+            "AND b.start <= ?3 " +
+            "AND b.end >= ?2 " +
+            "AND b.status NOT IN (?4) " +
             "ORDER BY b.start desc"
     )
-    List<Booking> findAllByItemIdAndStartBetweenAndEndBetween(int itemId, LocalDateTime start, LocalDateTime end);
+    List<Booking> findAllOverlappingByItemIdAndStatusNotIn(
+            int itemId, LocalDateTime start, LocalDateTime end, List<BookingStatus> statuses
+    );
 
-    @Query("SELECT new ru.practicum.shareit.booking.model.Booking(" +
-            "b.id, MAX(b.start), b.end, b.item, b.booker, b.status" +
-            ") FROM Booking b " +
+    @Query("FROM Booking b " +
             "WHERE b.item.id IN (?1) " +
-            "AND b.item.owner.id = ?2 " +
-            "AND b.start < ?3 " +
-            "AND b.status NOT IN (?4) " +
-            "GROUP BY b.id " +
-            "ORDER BY b.item.id, MAX(b.start) DESC"
+            "AND b.start <= ?3 " +
+            "AND b.end >= ?2 " +
+            "AND b.status NOT IN (?4)"
     )
-    List<Booking> findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
-            List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<Booking> findAllOverlappingByItemIdInAndStatusNotIn(
+            Collection<Integer> itemIds, LocalDateTime start, LocalDateTime end, List<BookingStatus> statuses
     );
 
-    @Query("SELECT new ru.practicum.shareit.booking.model.Booking(" +
-            "b.id, MIN(b.start), b.end, b.item, b.booker, b.status" +
-            ") FROM Booking b " +
-            "WHERE b.item.id IN (?1) " +
-            "AND b.item.owner.id = ?2 " +
-            "AND b.start >= ?3 " +
-            "AND b.status NOT IN (?4) " +
-            "GROUP BY b.id " +
-            "ORDER BY b.item.id, MIN(b.start)"
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status NOT IN (?2)"
     )
-    List<Booking> findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
-            List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
-    );
+    List<BookingInterval> findIntervalsByItemIdAndStatusNotIn(int itemId, List<BookingStatus> statuses);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     Optional<Booking> findFirstByItemIdAndBookerIdAndEndIsBefore(int itemId, int bookerId, LocalDateTime end);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.SeekCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    Slice<Booking> findAllByBookerIdAndStateAfter(
+            int bookerId, BookingState bookingState, LocalDateTime currentDate, SeekCursor after, int size
+    );
+
+    Slice<Booking> findAllByItemOwnerIdAndStateAfter(
+            int ownerId, BookingState bookingState, LocalDateTime currentDate, SeekCursor after, int size
+    );
+
+    /**
+     * Последнее начавшееся бронирование каждой вещи владельца - не более одной строки на вещь.
+     */
+    List<Booking> findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
+            List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
+    );
+
+    /**
+     * Ближайшее предстоящее бронирование каждой вещи владельца - не более одной строки на вещь.
+     */
+    List<Booking> findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
+            List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
+    );
+
+    /**
+     * Сохраняет новые бронирования одним пакетом JDBC и проставляет им сгенерированные id.
+     */
+    void insertAll(List<Booking> bookings);
+}
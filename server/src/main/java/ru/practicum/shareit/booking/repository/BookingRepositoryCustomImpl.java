@@ -0,0 +1,193 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.SeekCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String INSERT_BOOKING_SQL =
+            "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Для каждой вещи - одна проба индекса idx_bookings_item_start (item_id, start_date DESC, id DESC)
+     * с LIMIT 1, поэтому работа не зависит от длины истории бронирований вещи.
+     */
+    private static final String LAST_BOOKING_IDS_SQL = "SELECT (" +
+            "SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.start_date < :start AND b.status NOT IN (:statuses) " +
+            "ORDER BY b.start_date DESC, b.id DESC LIMIT 1" +
+            ") FROM items i WHERE i.id IN (:itemIds) AND i.owner_id = :ownerId";
+    private static final String NEXT_BOOKING_IDS_SQL = "SELECT (" +
+            "SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.start_date >= :start AND b.status NOT IN (:statuses) " +
+            "ORDER BY b.start_date, b.id LIMIT 1" +
+            ") FROM items i WHERE i.id IN (:itemIds) AND i.owner_id = :ownerId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Booking> findAllByBookerIdAndStateAfter(
+            int bookerId, BookingState bookingState, LocalDateTime currentDate, SeekCursor after, int size
+    ) {
+        return findAllByStateAfter(
+                booking -> booking.get("booker").get("id"), bookerId, bookingState, currentDate, after, size
+        );
+    }
+
+    @Override
+    public Slice<Booking> findAllByItemOwnerIdAndStateAfter(
+            int ownerId, BookingState bookingState, LocalDateTime currentDate, SeekCursor after, int size
+    ) {
+        return findAllByStateAfter(
+                booking -> booking.get("item").get("owner").get("id"), ownerId, bookingState, currentDate, after, size
+        );
+    }
+
+    @Override
+    public List<Booking> findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
+            List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
+    ) {
+        return findAllWithItemAndBookerByIdIn(findFirstIds(LAST_BOOKING_IDS_SQL, itemIds, ownerId, start, statuses));
+    }
+
+    @Override
+    public List<Booking> findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
+            List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
+    ) {
+        return findAllWithItemAndBookerByIdIn(findFirstIds(NEXT_BOOKING_IDS_SQL, itemIds, ownerId, start, statuses));
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty())
+            return;
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING_SQL, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    statement.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                    statement.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                    statement.setInt(3, booking.getItem().getId());
+                    statement.setInt(4, booking.getBooker().getId());
+                    statement.setString(5, booking.getStatus().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        keys.next();
+                        booking.setId(keys.getInt(1));
+                    }
+                }
+            }
+        });
+    }
+
+    private List<Integer> findFirstIds(
+            String sql, List<Integer> itemIds, int ownerId, LocalDateTime start, List<BookingStatus> statuses
+    ) {
+        if (itemIds.isEmpty())
+            return Collections.emptyList();
+
+        List<?> ids = entityManager.createNativeQuery(sql)
+                .setParameter("itemIds", itemIds)
+                .setParameter("ownerId", ownerId)
+                .setParameter("start", start)
+                .setParameter("statuses", statuses.stream().map(BookingStatus::name).collect(Collectors.toList()))
+                .getResultList();
+
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .map(id -> ((Number) id).intValue())
+                .collect(Collectors.toList());
+    }
+
+    private List<Booking> findAllWithItemAndBookerByIdIn(List<Integer> ids) {
+        if (ids.isEmpty())
+            return Collections.emptyList();
+
+        return entityManager.createQuery("FROM Booking b WHERE b.id IN (:ids) ORDER BY b.item.id", Booking.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.HINT_FETCHGRAPH, entityManager.getEntityGraph(Booking.WITH_ITEM_AND_BOOKER))
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Страница из size бронирований после курсора; для hasNext читается на одну строку больше.
+     */
+    private Slice<Booking> findAllByStateAfter(
+            Function<Root<Booking>, Path<Integer>> userIdPath, int userId,
+            BookingState bookingState, LocalDateTime currentDate, SeekCursor after, int size
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Path<Integer> id = booking.get("id");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(userIdPath.apply(booking), userId));
+        switch (bookingState) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, currentDate));
+                predicates.add(cb.greaterThan(end, currentDate));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, currentDate));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(start, currentDate));
+                predicates.add(cb.lessThan(end, currentDate));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        if (after != null)
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getTimestamp()),
+                    cb.and(cb.equal(start, after.getTimestamp()), cb.lessThan(id, after.getId()))
+            ));
+
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        List<Booking> bookings = entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCHGRAPH, entityManager.getEntityGraph(Booking.WITH_ITEM_AND_BOOKER))
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = bookings.size() > size;
+
+        return new SliceImpl<>(hasNext ? bookings.subList(0, size) : bookings, PageRequest.of(0, size), hasNext);
+    }
+}
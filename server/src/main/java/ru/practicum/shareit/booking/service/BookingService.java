@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.exception.*;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.util.List;
@@ -13,6 +16,8 @@ public interface BookingService {
             Booking booking, int ownerId, int itemId
     ) throws ItemNotFoundException, UserNotFoundException, AddBookingByItemOwnerException;
 
+    List<BookingBatchResult> addBookings(List<Booking> bookings, int bookerId) throws UserNotFoundException;
+
     Booking getBooking(
             int bookingId, int ownerId
     ) throws BookingNotFoundException, UserNotBookingCreatorOrItemOwnerException;
@@ -21,11 +26,21 @@ public interface BookingService {
             int bookingId, int ownerId, boolean isApproved
     ) throws BookingNotFoundException, UserNotItemOwnerInBookingException, BadBookingStatusForApproveException;
 
-    List<Booking> getAllBookingsOfUserByState(
+    List<BookingBatchResult> approveBookings(List<Integer> bookingIds, int ownerId, boolean isApproved);
+
+    Slice<Booking> getAllBookingsOfUserByState(
             int ownerId, BookingState bookingState, int from, int size
     ) throws BookingNotFoundException;
 
-    List<Booking> getAllBookingsOfUserItems(
+    Slice<Booking> getAllBookingsOfUserByState(
+            int ownerId, BookingState bookingState, SeekCursor after, int size
+    ) throws BookingNotFoundException;
+
+    Slice<Booking> getAllBookingsOfUserItems(
             int ownerId, BookingState bookingState, int from, int size
     ) throws BookingNotFoundException;
+
+    Slice<Booking> getAllBookingsOfUserItems(
+            int ownerId, BookingState bookingState, SeekCursor after, int size
+    ) throws BookingNotFoundException;
 }
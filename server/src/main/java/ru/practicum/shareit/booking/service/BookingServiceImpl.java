@@ -1,40 +1,60 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.exception.*;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingOverlapConstraint;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserForeignKeyConstraint;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingServiceImpl implements BookingService {
+    public static final int MAX_BOOKING_BATCH_SIZE = 100;
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean exclusionConstraintEnabled;
 
     @Autowired
     public BookingServiceImpl(
-            BookingRepository bookingRepository, ItemRepository itemRepository, UserRepository userRepository
+            BookingRepository bookingRepository, ItemRepository itemRepository, UserCache userCache,
+            BookingIntervalIndex bookingIntervalIndex, ApplicationEventPublisher eventPublisher,
+            @Value("${shareit.booking.exclusion-constraint.enabled:false}") boolean exclusionConstraintEnabled
     ) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.eventPublisher = eventPublisher;
+        this.exclusionConstraintEnabled = exclusionConstraintEnabled;
     }
 
 
@@ -46,25 +66,94 @@ public class BookingServiceImpl implements BookingService {
         User booker = getUser(bookerId);
         Item item = getItem(itemId);
 
-        if (!item.getAvailable())
-            throw new ItemNotAvailableException(itemId);
-        if (booking.getEnd().isBefore(booking.getStart()) || booking.getEnd().equals(booking.getStart()))
-            throw new IllegalArgumentException(
-                    "Время завершения бронирования должно быть после времени начала бронирования"
-            );
-        if (item.getOwner().getId() == bookerId)
-            throw new AddBookingByItemOwnerException();
+        checkNewBooking(booking, item, bookerId);
 
-        List<Booking> alreadyCreatedBookings = bookingRepository
-                .findAllByItemIdAndStartBetweenAndEndBetween(item.getId(), booking.getStart(), booking.getEnd());
-        if (!alreadyCreatedBookings.isEmpty())
+        if (isAlreadyReserved(item.getId(), booking.getStart(), booking.getEnd()))
             throw new AlreadyReservedItemException(itemId);
 
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
 
-        return bookingRepository.save(booking);
+        Booking addedBooking;
+        try {
+            addedBooking = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingOverlapConstraint.isViolatedBy(e))
+                throw new AlreadyReservedItemException(itemId);
+            if (UserForeignKeyConstraint.isViolatedBy(e)) {
+                userCache.invalidate(bookerId);
+                throw new UserNotFoundException(bookerId);
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(BookingChangedEvent.of(addedBooking));
+
+        return addedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> addBookings(List<Booking> bookings, int bookerId) throws UserNotFoundException {
+        if (bookings.isEmpty() || bookings.size() > MAX_BOOKING_BATCH_SIZE)
+            throw new IllegalArgumentException(
+                    "Пакет должен содержать от 1 до " + MAX_BOOKING_BATCH_SIZE + " бронирований."
+            );
+
+        User booker = getUser(bookerId);
+        // вещи блокируются до чтения занятых интервалов: параллельная вставка бронирования этих вещей
+        // ждет коммита пакета, и ограничение-исключение не отклоняет пакет целиком
+        Map<Integer, Item> items = itemRepository.findAllByIdInOrderByIdAsc(
+                bookings.stream()
+                        .filter(booking -> booking.getItem() != null)
+                        .map(booking -> booking.getItem().getId())
+                        .collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Integer, List<Booking>> reservedBookings = findReservedBookings(bookings, items.keySet());
+
+        List<BookingBatchResult> results = new ArrayList<>(bookings.size());
+        List<Booking> addedBookings = new ArrayList<>();
+        for (Booking booking : bookings) {
+            try {
+                if (booking.getItem() == null)
+                    throw new IllegalArgumentException("Не указана вещь для бронирования");
+                int itemId = booking.getItem().getId();
+                Item item = items.get(itemId);
+                if (item == null)
+                    throw new ItemNotFoundException(itemId);
+
+                checkNewBooking(booking, item, bookerId);
+
+                List<Booking> itemBookings = reservedBookings.computeIfAbsent(itemId, id -> new ArrayList<>());
+                if (itemBookings.stream().anyMatch(reserved -> overlaps(reserved, booking)))
+                    throw new AlreadyReservedItemException(itemId);
+
+                booking.setBooker(booker);
+                booking.setItem(item);
+                booking.setStatus(BookingStatus.WAITING);
+                itemBookings.add(booking);
+                addedBookings.add(booking);
+                results.add(BookingBatchResult.success(booking));
+            } catch (ItemNotFoundException | ItemNotAvailableException | AddBookingByItemOwnerException
+                     | AlreadyReservedItemException | IllegalArgumentException e) {
+                results.add(BookingBatchResult.failure(e.getMessage()));
+            }
+        }
+
+        try {
+            bookingRepository.insertAll(addedBookings);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingOverlapConstraint.isViolatedBy(e))
+                throw new AlreadyReservedItemException();
+            if (UserForeignKeyConstraint.isViolatedBy(e)) {
+                userCache.invalidate(bookerId);
+                throw new UserNotFoundException(bookerId);
+            }
+            throw e;
+        }
+        addedBookings.forEach(booking -> eventPublisher.publishEvent(BookingChangedEvent.of(booking)));
+
+        return results;
     }
 
     @Override
@@ -91,57 +180,107 @@ public class BookingServiceImpl implements BookingService {
                 .findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException(bookingId));
 
-        if (booking.getItem().getOwner().getId() != ownerId)
-            throw new UserNotItemOwnerInBookingException(bookingId, ownerId);
+        checkApproval(booking, ownerId);
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING))
-            throw new BadBookingStatusForApproveException(
-                    "Статус бронирования " + bookingId + " уже изменен на " + booking.getStatus()
+        booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+
+        Booking approvedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(approvedBooking));
+
+        return approvedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> approveBookings(List<Integer> bookingIds, int ownerId, boolean isApproved) {
+        if (bookingIds.isEmpty() || bookingIds.size() > MAX_BOOKING_BATCH_SIZE)
+            throw new IllegalArgumentException(
+                    "Пакет должен содержать от 1 до " + MAX_BOOKING_BATCH_SIZE + " бронирований."
             );
 
-        booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        // строки блокируются в порядке id, чтобы встречные пакеты одного владельца не взаимоблокировались
+        Map<Integer, Booking> bookings = bookingRepository.findAllByIdInOrderByIdAsc(new HashSet<>(bookingIds))
+                .stream().collect(Collectors.toMap(Booking::getId, Function.identity()));
+        // вещи загружаются одним запросом, чтобы проверка владельца не инициализировала каждый прокси отдельно
+        itemRepository.findAllById(
+                bookings.values().stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet())
+        );
+
+        Map<Integer, BookingBatchResult> results = new HashMap<>();
+        List<Booking> approvedBookings = new ArrayList<>();
+        for (int bookingId : new LinkedHashSet<>(bookingIds)) {
+            try {
+                Booking booking = bookings.get(bookingId);
+                if (booking == null)
+                    throw new BookingNotFoundException(bookingId);
+
+                checkApproval(booking, ownerId);
+
+                approvedBookings.add(booking);
+                results.put(bookingId, BookingBatchResult.success(booking));
+            } catch (BookingNotFoundException | UserNotItemOwnerInBookingException
+                     | BadBookingStatusForApproveException e) {
+                results.put(bookingId, BookingBatchResult.failure(e.getMessage()));
+            }
+        }
 
-        return bookingRepository.save(booking);
+        if (!approvedBookings.isEmpty()) {
+            BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            int updated = bookingRepository.updateStatusOfWaitingByIdInAndItemOwnerId(
+                    approvedBookings.stream().map(Booking::getId).collect(Collectors.toList()), ownerId, status
+            );
+            // строки заблокированы и проверены выше: расхождение означает, что блокировка не сработала
+            if (updated != approvedBookings.size())
+                throw new IllegalStateException(
+                        "Статус изменен у " + updated + " бронирований из " + approvedBookings.size() + "."
+                );
+            approvedBookings.forEach(booking -> {
+                booking.setStatus(status);
+                eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+            });
+        }
+
+        return bookingIds.stream().map(results::get).collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllBookingsOfUserByState(
+    public Slice<Booking> getAllBookingsOfUserByState(
             int bookerId, BookingState bookingState, int from, int size
     ) throws BookingNotFoundException {
         if (size <= 0)
             throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
 
-        List<Booking> allBookings;
+        Slice<Booking> allBookings;
         Pageable pageable = PageRequest.of(from / size, size);
         switch (bookingState) {
             case CURRENT:
-                allBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+                allBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
                         bookerId, LocalDateTime.now(), LocalDateTime.now(), pageable
                 );
                 break;
             case FUTURE:
-                allBookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
+                allBookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(
                         bookerId, LocalDateTime.now(), pageable
                 );
                 break;
             case PAST:
-                allBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(
+                allBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
                         bookerId, LocalDateTime.now(), LocalDateTime.now(), pageable
                 );
                 break;
             case WAITING:
-                allBookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
+                allBookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(
                         bookerId, BookingStatus.WAITING, pageable
                 );
                 break;
             case REJECTED:
-                allBookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
+                allBookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(
                         bookerId, BookingStatus.REJECTED, pageable
                 );
                 break;
             default:
-                allBookings = bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageable);
+                allBookings = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(bookerId, pageable);
         }
 
         if (allBookings.isEmpty())
@@ -152,49 +291,61 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllBookingsOfUserItems(
-            int ownerId, BookingState bookingState, int from, int size
+    public Slice<Booking> getAllBookingsOfUserByState(
+            int bookerId, BookingState bookingState, SeekCursor after, int size
     ) throws BookingNotFoundException {
         if (size <= 0)
             throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
 
-        List<Booking> allBookings;
-        Pageable pageable = PageRequest.of(from / size, size);
-
-        List<Integer> itemIds = getAllItemsByOwnerId(ownerId)
-                .stream().map(Item::getId).collect(Collectors.toList());
+        Slice<Booking> allBookings = bookingRepository.findAllByBookerIdAndStateAfter(
+                bookerId, bookingState, LocalDateTime.now(), after, size
+        );
 
-        if (itemIds.isEmpty())
+        if (allBookings.isEmpty())
             throw new BookingNotFoundException();
+        else
+            return allBookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Booking> getAllBookingsOfUserItems(
+            int ownerId, BookingState bookingState, int from, int size
+    ) throws BookingNotFoundException {
+        if (size <= 0)
+            throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+
+        Slice<Booking> allBookings;
+        Pageable pageable = PageRequest.of(from / size, size);
 
         switch (bookingState) {
             case CURRENT:
-                allBookings = bookingRepository.findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
-                        itemIds, LocalDateTime.now(), LocalDateTime.now(), pageable
+                allBookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+                        ownerId, LocalDateTime.now(), LocalDateTime.now(), pageable
                 );
                 break;
             case FUTURE:
-                allBookings = bookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(
-                        itemIds, LocalDateTime.now(), pageable
+                allBookings = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
+                        ownerId, LocalDateTime.now(), pageable
                 );
                 break;
             case PAST:
-                allBookings = bookingRepository.findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(
-                        itemIds, LocalDateTime.now(), LocalDateTime.now(), pageable
+                allBookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
+                        ownerId, LocalDateTime.now(), LocalDateTime.now(), pageable
                 );
                 break;
             case WAITING:
-                allBookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(
-                        itemIds, BookingStatus.WAITING, pageable
+                allBookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                        ownerId, BookingStatus.WAITING, pageable
                 );
                 break;
             case REJECTED:
-                allBookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(
-                        itemIds, BookingStatus.REJECTED, pageable
+                allBookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                        ownerId, BookingStatus.REJECTED, pageable
                 );
                 break;
             default:
-                allBookings = bookingRepository.findAllByItemIdInOrderByStartDesc(itemIds, pageable);
+                allBookings = bookingRepository.findAllByItemOwnerIdOrderByStartDescIdDesc(ownerId, pageable);
         }
 
         if (allBookings.isEmpty())
@@ -203,20 +354,88 @@ public class BookingServiceImpl implements BookingService {
             return allBookings;
     }
 
-    private User getUser(int userId) throws UserNotFoundException {
-        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Booking> getAllBookingsOfUserItems(
+            int ownerId, BookingState bookingState, SeekCursor after, int size
+    ) throws BookingNotFoundException {
+        if (size <= 0)
+            throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+
+        Slice<Booking> allBookings = bookingRepository.findAllByItemOwnerIdAndStateAfter(
+                ownerId, bookingState, LocalDateTime.now(), after, size
+        );
+
+        if (allBookings.isEmpty())
+            throw new BookingNotFoundException();
+        else
+            return allBookings;
     }
 
-    private Item getItem(int itemId) throws ItemNotFoundException {
-        return itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
+    private void checkNewBooking(Booking booking, Item item, int bookerId) {
+        if (!item.getAvailable())
+            throw new ItemNotAvailableException(item.getId());
+        if (booking.getStart() == null || booking.getEnd() == null)
+            throw new IllegalArgumentException("Не указано время начала или завершения бронирования");
+        if (booking.getEnd().isBefore(booking.getStart()) || booking.getEnd().equals(booking.getStart()))
+            throw new IllegalArgumentException(
+                    "Время завершения бронирования должно быть после времени начала бронирования"
+            );
+        if (item.getOwner().getId() == bookerId)
+            throw new AddBookingByItemOwnerException();
     }
 
-    private List<Item> getAllItemsByOwnerId(int ownerId) throws ItemNotFoundException {
-        List<Item> items = itemRepository.findByOwnerId(ownerId, Pageable.unpaged());
+    private void checkApproval(Booking booking, int ownerId) {
+        if (booking.getItem().getOwner().getId() != ownerId)
+            throw new UserNotItemOwnerInBookingException(booking.getId(), ownerId);
+
+        if (!booking.getStatus().equals(BookingStatus.WAITING))
+            throw new BadBookingStatusForApproveException(
+                    "Статус бронирования " + booking.getId() + " уже изменен на " + booking.getStatus()
+            );
+    }
 
-        if (items.isEmpty())
-            throw new ItemNotFoundException();
-        else
-            return items;
+    private Map<Integer, List<Booking>> findReservedBookings(List<Booking> bookings, Set<Integer> itemIds) {
+        Optional<LocalDateTime> from = bookings.stream()
+                .map(Booking::getStart).filter(Objects::nonNull).min(Comparator.naturalOrder());
+        Optional<LocalDateTime> to = bookings.stream()
+                .map(Booking::getEnd).filter(Objects::nonNull).max(Comparator.naturalOrder());
+        if (itemIds.isEmpty() || from.isEmpty() || to.isEmpty())
+            return new HashMap<>();
+
+        return bookingRepository.findAllOverlappingByItemIdInAndStatusNotIn(
+                        itemIds, from.get(), to.get(), BookingIntervalIndex.INACTIVE_BOOKING_STATUSES
+                )
+                .stream().collect(Collectors.groupingBy(
+                        booking -> booking.getItem().getId(), Collectors.toCollection(ArrayList::new)
+                ));
+    }
+
+    private static boolean overlaps(Booking reserved, Booking booking) {
+        return !reserved.getStart().isAfter(booking.getEnd()) && !reserved.getEnd().isBefore(booking.getStart());
+    }
+
+    /**
+     * Индекс интервалов локален для узла и может отставать от базы, поэтому он только
+     * быстро отклоняет пересечение. Отсутствие пересечения в индексе проверяется запросом
+     * к базе либо ограничением-исключением при сохранении.
+     */
+    private boolean isAlreadyReserved(int itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingIntervalIndex.isEnabled() && bookingIntervalIndex.hasOverlap(itemId, start, end))
+            return true;
+        if (exclusionConstraintEnabled)
+            return false;
+
+        return !bookingRepository.findAllOverlappingByItemIdAndStatusNotIn(
+                itemId, start, end, BookingIntervalIndex.INACTIVE_BOOKING_STATUSES
+        ).isEmpty();
+    }
+
+    private User getUser(int userId) throws UserNotFoundException {
+        return userCache.getUser(userId);
+    }
+
+    private Item getItem(int itemId) throws ItemNotFoundException {
+        return itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
     }
 }
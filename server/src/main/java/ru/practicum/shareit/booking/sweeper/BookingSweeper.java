@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.sweeper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Фоновая очистка бронирований: отменяет WAITING-бронирования, время начала которых прошло,
+ * и удаляет REJECTED/CANCELED-бронирования, завершившиеся раньше срока хранения.
+ * Работает пачками ограниченного размера, каждая пачка - в отдельной транзакции.
+ * При включенной advisory-блокировке пачку обрабатывает только один узел.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.sweeper.enabled", havingValue = "true")
+@Slf4j
+public class BookingSweeper {
+    private static final long ADVISORY_LOCK_KEY = 10_001L;
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration retention;
+    private final boolean advisoryLockEnabled;
+
+    private final Counter canceledCounter;
+    private final Counter deletedCounter;
+    private final Counter skippedCounter;
+    private final Timer sweepTimer;
+
+    @Autowired
+    public BookingSweeper(
+            BookingRepository bookingRepository, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${shareit.booking.sweeper.batch-size:500}") int batchSize,
+            @Value("${shareit.booking.sweeper.max-batches:20}") int maxBatches,
+            @Value("${shareit.booking.sweeper.retention:30d}") Duration retention,
+            @Value("${shareit.booking.sweeper.advisory-lock.enabled:false}") boolean advisoryLockEnabled
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retention = retention;
+        this.advisoryLockEnabled = advisoryLockEnabled;
+
+        this.canceledCounter = meterRegistry.counter("shareit.booking.sweeper.canceled");
+        this.deletedCounter = meterRegistry.counter("shareit.booking.sweeper.deleted");
+        this.skippedCounter = meterRegistry.counter("shareit.booking.sweeper.skipped");
+        this.sweepTimer = meterRegistry.timer("shareit.booking.sweeper.duration");
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.booking.sweeper.interval:PT1M}",
+            fixedDelayString = "${shareit.booking.sweeper.interval:PT1M}"
+    )
+    public void sweep() {
+        sweepTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            int canceled = runBatches(() -> cancelStaleWaitingBookings(now));
+            int deleted = runBatches(() -> deleteInactiveBookings(now.minus(retention)));
+
+            if (canceled > 0 || deleted > 0)
+                log.info("Очистка бронирований: отменено {}, удалено {}", canceled, deleted);
+        });
+    }
+
+    private int runBatches(Supplier<Integer> batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer processed = transactionTemplate.execute(status -> tryLock() ? batch.get() : null);
+            if (processed == null) {
+                skippedCounter.increment();
+                break;
+            }
+
+            total += processed;
+            if (processed < batchSize)
+                break;
+        }
+        return total;
+    }
+
+    private boolean tryLock() {
+        return !advisoryLockEnabled || Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY)
+        );
+    }
+
+    private int cancelStaleWaitingBookings(LocalDateTime now) {
+        List<Booking> bookings = bookingRepository.findAllByStatusAndStartBefore(
+                BookingStatus.WAITING, now, PageRequest.of(0, batchSize)
+        );
+        if (bookings.isEmpty())
+            return 0;
+
+        bookingRepository.updateStatusByIdInAndStatus(
+                bookings.stream().map(Booking::getId).collect(Collectors.toList()),
+                BookingStatus.CANCELED, BookingStatus.WAITING
+        );
+        bookings.forEach(booking -> {
+            booking.setStatus(BookingStatus.CANCELED);
+            eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+        });
+        canceledCounter.increment(bookings.size());
+
+        return bookings.size();
+    }
+
+    private int deleteInactiveBookings(LocalDateTime endedBefore) {
+        List<Integer> bookingIds = bookingRepository.findIdsByStatusInAndEndBefore(
+                BookingIntervalIndex.INACTIVE_BOOKING_STATUSES, endedBefore, PageRequest.of(0, batchSize)
+        );
+        if (bookingIds.isEmpty())
+            return 0;
+
+        int deleted = bookingRepository.deleteAllByIdIn(bookingIds);
+        deletedCounter.increment(deleted);
+
+        return bookingIds.size();
+    }
+}
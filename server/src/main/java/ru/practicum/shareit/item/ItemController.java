@@ -2,9 +2,11 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDTO;
+import ru.practicum.shareit.item.dto.FreeIntervalDTO;
 import ru.practicum.shareit.item.dto.ItemDTO;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -13,6 +15,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemBookingDetails;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -79,13 +82,34 @@ public class ItemController {
         return items.stream().map(ItemMapper::toItemDTO).collect(Collectors.toList());
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDTO> getAvailability(
+            @RequestHeader(OWNER_ID_HEADER) Integer userId,
+            @PathVariable("itemId") Integer itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemService.getAvailability(itemId, userId, from, to)
+                .stream().map(ItemMapper::toFreeIntervalDTO).collect(Collectors.toList());
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        return itemService.suggestItemNames(prefix, size);
+    }
+
     @GetMapping("/search")
     public List<ItemDTO> getAvailableItemsByName(
             @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             @RequestParam(defaultValue = "0") Integer from,
             @RequestParam(defaultValue = "20") Integer size
     ) {
-        List<Item> items = itemService.getAvailableItemsByText(text, from, size);
+        List<Item> items = itemService.getAvailableItemsByText(text, start, end, from, size);
 
         return items.stream().map(ItemMapper::toItemDTO).collect(Collectors.toList());
     }
@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingDetails;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш карточек вещей. Хранит копии карточек из новых объектов вне контекста персистентности, без
+ * ленивых прокси: только поля, которые попадают в ItemDTO, и id пользователей. Каждый вызов get
+ * возвращает новую копию, поэтому изменения возвращенной карточки не попадают в кэш.
+ * Для владельца и для остальных пользователей хранятся разные представления:
+ * владельцу показываются последнее и следующее бронирования, поэтому его запись живет
+ * не дольше начала следующего бронирования - после этого момента оба значения меняются.
+ * Записи удаляются после изменения вещи, добавления отзыва и изменения бронирования вещи,
+ * а также после изменения или удаления владельца, арендатора или автора отзыва из карточки.
+ * Отметки против записи устаревших карточек ведутся по полосам id вещей, поэтому изменение
+ * одной вещи не мешает кэшировать остальные.
+ * Метрики cache.* с тегами cache=items.details.public и cache=items.details.owner.
+ */
+@Component
+public class ItemDetailsCache {
+    private static final int STAMP_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final Cache<Integer, ItemBookingDetails> publicViews;
+    private final Cache<Integer, ItemBookingDetails> ownerViews;
+    private final AtomicLongArray invalidations = new AtomicLongArray(STAMP_STRIPES);
+
+    @Autowired
+    public ItemDetailsCache(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.items.details.cache.enabled:false}") boolean enabled,
+            @Value("${shareit.items.details.cache.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.items.details.cache.expire-after-write:5m}") Duration expireAfterWrite
+    ) {
+        this.enabled = enabled;
+        this.publicViews = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.ownerViews = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilNextBooking(expireAfterWrite))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, publicViews, "items.details.public");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerViews, "items.details.owner");
+    }
+
+    /**
+     * Отметка вещи, которую нужно получить до загрузки карточки и передать в put:
+     * карточка, загруженная до удаления записей вещи, в кэш не попадет.
+     */
+    public long stamp(int itemId) {
+        return invalidations.get(stripe(itemId));
+    }
+
+    /**
+     * Карточка вещи в представлении для пользователя userId или null, если ее нет в кэше.
+     */
+    public ItemBookingDetails get(int itemId, int userId) {
+        if (!enabled)
+            return null;
+
+        ItemBookingDetails ownerView = ownerViews.getIfPresent(itemId);
+        if (ownerView != null && ownerId(ownerView) == userId)
+            return copyOf(ownerView);
+
+        ItemBookingDetails publicView = publicViews.getIfPresent(itemId);
+        if (publicView != null && ownerId(publicView) != userId)
+            return copyOf(publicView);
+
+        return null;
+    }
+
+    public void put(ItemBookingDetails details, int userId, long stamp) {
+        if (!enabled)
+            return;
+
+        ItemBookingDetails snapshot = copyOf(details);
+        Cache<Integer, ItemBookingDetails> views = ownerId(snapshot) == userId ? ownerViews : publicViews;
+        views.asMap().compute(snapshot.getItem().getId(), (itemId, cached) ->
+                invalidations.get(stripe(itemId)) == stamp ? snapshot : cached
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled)
+            return;
+
+        invalidations.incrementAndGet(stripe(event.getItemId()));
+        ownerViews.invalidate(event.getItemId());
+    }
+
+    /**
+     * Пользователь может быть в карточках многих вещей, поэтому записи с ним ищутся перебором:
+     * пользователи меняются редко.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled)
+            return;
+
+        for (int i = 0; i < STAMP_STRIPES; i++)
+            invalidations.incrementAndGet(i);
+        publicViews.asMap().values().removeIf(details -> mentions(details, event.getUserId()));
+        ownerViews.asMap().values().removeIf(details -> mentions(details, event.getUserId()));
+    }
+
+    private void invalidate(int itemId) {
+        if (!enabled)
+            return;
+
+        invalidations.incrementAndGet(stripe(itemId));
+        publicViews.invalidate(itemId);
+        ownerViews.invalidate(itemId);
+    }
+
+    private static int stripe(int itemId) {
+        return Math.floorMod(itemId, STAMP_STRIPES);
+    }
+
+    private static boolean mentions(ItemBookingDetails details, int userId) {
+        return ownerId(details) == userId
+                || isBooker(details.getLastBooking(), userId)
+                || isBooker(details.getNextBooking(), userId)
+                || details.getComments().stream()
+                .anyMatch(comment -> comment.getAuthor() != null && comment.getAuthor().getId() == userId);
+    }
+
+    private static boolean isBooker(Booking booking, int userId) {
+        return booking != null && booking.getBooker() != null && booking.getBooker().getId() == userId;
+    }
+
+    private static int ownerId(ItemBookingDetails details) {
+        return details.getItem().getOwner().getId();
+    }
+
+    private static ItemBookingDetails copyOf(ItemBookingDetails details) {
+        Item item = Item.builder()
+                .id(details.getItem().getId())
+                .name(details.getItem().getName())
+                .description(details.getItem().getDescription())
+                .available(details.getItem().getAvailable())
+                .requestId(details.getItem().getRequestId())
+                .owner(userOf(details.getItem().getOwner().getId(), null))
+                .build();
+
+        return new ItemBookingDetails(
+                item,
+                copyOf(details.getLastBooking(), item),
+                copyOf(details.getNextBooking(), item),
+                details.getComments().stream().map(comment -> copyOf(comment, item)).collect(Collectors.toList())
+        );
+    }
+
+    private static Booking copyOf(Booking booking, Item item) {
+        if (booking == null)
+            return null;
+
+        return Booking.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .item(item)
+                .booker(booking.getBooker() != null ? userOf(booking.getBooker().getId(), null) : null)
+                .build();
+    }
+
+    private static Comment copyOf(Comment comment, Item item) {
+        return Comment.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .created(comment.getCreated())
+                .item(item)
+                .author(comment.getAuthor() != null ?
+                        userOf(comment.getAuthor().getId(), comment.getAuthor().getName()) : null)
+                .build();
+    }
+
+    private static User userOf(int userId, String name) {
+        return new User(userId, name, null);
+    }
+
+    private static class UntilNextBooking implements Expiry<Integer, ItemBookingDetails> {
+        private final Duration maxDuration;
+
+        UntilNextBooking(Duration expireAfterWrite) {
+            this.maxDuration = expireAfterWrite;
+        }
+
+        @Override
+        public long expireAfterCreate(Integer itemId, ItemBookingDetails details, long currentTime) {
+            if (details.getNextBooking() == null)
+                return maxDuration.toNanos();
+
+            Duration untilNextBooking = Duration.between(LocalDateTime.now(), details.getNextBooking().getStart());
+            if (untilNextBooking.isNegative())
+                return 0;
+            return untilNextBooking.compareTo(maxDuration) < 0 ? untilNextBooking.toNanos() : maxDuration.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                Integer itemId, ItemBookingDetails details, long currentTime, long currentDuration
+        ) {
+            return expireAfterCreate(itemId, details, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+                Integer itemId, ItemBookingDetails details, long currentTime, long currentDuration
+        ) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchMode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш страниц поиска вещей по ключу (текст в нижнем регистре, смещение, размер).
+ * Ограничен по размеру и времени жизни. Хранит копии вещей вне контекста персистентности
+ * (только поля, которые попадают в ItemDTO), каждый вызов get возвращает новые копии.
+ * Записи не перебираются при изменении вещи: изменение увеличивает отметки полос биграмм
+ * прежнего и нового текста вещи и отметку полосы ее id, а страница вместе с найденными вещами
+ * хранит отметки, взятые до поиска, и проверяется при чтении. Страница устарела, если изменилась
+ * одна из ее вещей или изменившиеся биграммы покрывают запрос так, как его мог бы покрыть текст
+ * подходящей вещи: для LIKE - все биграммы каждого слова запроса, для поиска с опечатками -
+ * не меньше (длина слова - 1 - 2 * допустимое число опечаток) биграмм каждого слова,
+ * для морфологии - хотя бы одна биграмма одного из слов. Совпадения полос и изменения разных
+ * вещей только чаще сбрасывают страницы, но не оставляют устаревшие.
+ * Слушатель изменений вещей выполняется после обновления индекса поиска, а страница, найденная
+ * во время изменения вещи, в кэш не попадает.
+ * Метрики cache.* с тегом cache=items.search.
+ */
+@Component
+public class ItemSearchCache {
+    private static final int GRAM_LENGTH = 2;
+    private static final int GRAM_STRIPES = 4096;
+    private static final int ITEM_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final ItemSearchMode searchMode;
+    private final int maxFuzzyDistance;
+    private final Cache<Key, Page> cache;
+    private final AtomicLongArray gramStamps = new AtomicLongArray(GRAM_STRIPES);
+    private final AtomicLongArray itemStamps = new AtomicLongArray(ITEM_STRIPES);
+    private final AtomicLong changes = new AtomicLong();
+
+    @Autowired
+    public ItemSearchCache(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.items.search.cache.enabled:false}") boolean enabled,
+            @Value("${shareit.items.search.cache.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.items.search.cache.expire-after-write:1m}") Duration expireAfterWrite,
+            @Value("${shareit.items.search.mode:like}") ItemSearchMode searchMode,
+            @Value("${shareit.items.search.fuzzy.max-distance:2}") int maxFuzzyDistance
+    ) {
+        this.enabled = enabled;
+        this.searchMode = searchMode;
+        this.maxFuzzyDistance = maxFuzzyDistance;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.search");
+    }
+
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    public List<Item> get(String text, long offset, int size, Supplier<List<Item>> search) {
+        if (!enabled)
+            return search.get();
+
+        Key key = new Key(normalize(text), offset, size);
+        Page cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (!isStale(cached))
+                return copyOf(cached.items);
+            cache.asMap().remove(key, cached);
+        }
+
+        long changesBefore = changes.get();
+        List<Word> words = wordsOf(key.getText());
+        long[][] wordStamps = new long[words.size()][];
+        for (int i = 0; i < words.size(); i++)
+            wordStamps[i] = stampsOf(words.get(i));
+
+        List<Item> found = copyOf(search.get());
+        long[] foundStamps = new long[found.size()];
+        for (int i = 0; i < found.size(); i++)
+            foundStamps[i] = itemStamps.get(itemStripe(found.get(i).getId()));
+
+        if (changes.get() == changesBefore)
+            cache.put(key, new Page(found, foundStamps, words, wordStamps, changesBefore));
+
+        return copyOf(found);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled)
+            return;
+
+        Set<Integer> stripes = new HashSet<>();
+        addGramStripes(stripes, event.getName());
+        addGramStripes(stripes, event.getDescription());
+        addGramStripes(stripes, event.getPreviousName());
+        addGramStripes(stripes, event.getPreviousDescription());
+
+        stripes.forEach(gramStamps::incrementAndGet);
+        itemStamps.incrementAndGet(itemStripe(event.getItemId()));
+        changes.incrementAndGet();
+    }
+
+    private boolean isStale(Page page) {
+        if (changes.get() == page.changes)
+            return false;
+
+        for (int i = 0; i < page.items.size(); i++) {
+            if (itemStamps.get(itemStripe(page.items.get(i).getId())) != page.itemStamps[i])
+                return true;
+        }
+
+        if (page.words.isEmpty())
+            return true;
+
+        boolean fullText = searchMode == ItemSearchMode.FULL_TEXT;
+        for (int i = 0; i < page.words.size(); i++) {
+            Word word = page.words.get(i);
+            boolean covered = changedGrams(word, page.wordStamps[i]) >= word.requiredGrams;
+            if (fullText && covered)
+                return true;
+            if (!fullText && !covered)
+                return false;
+        }
+        return !fullText;
+    }
+
+    private int changedGrams(Word word, long[] stamps) {
+        int changed = 0;
+        for (int i = 0; i < word.stripes.length; i++) {
+            if (gramStamps.get(word.stripes[i]) != stamps[i])
+                changed++;
+        }
+        return changed;
+    }
+
+    /**
+     * Слова запроса с полосами их биграмм и числом биграмм, которые должны измениться,
+     * чтобы изменившаяся вещь могла подойти к слову.
+     */
+    private List<Word> wordsOf(String query) {
+        List<Word> words = new ArrayList<>();
+        for (String word : ItemSearchIndex.wordsOf(query)) {
+            int[] stripes = new int[Math.max(0, word.length() - GRAM_LENGTH + 1)];
+            for (int i = 0; i < stripes.length; i++)
+                stripes[i] = gramStripe(word.substring(i, i + GRAM_LENGTH));
+
+            words.add(new Word(stripes, requiredGrams(word, stripes.length)));
+        }
+        return words;
+    }
+
+    private int requiredGrams(String word, int grams) {
+        switch (searchMode) {
+            case FULL_TEXT:
+                return Math.min(1, grams);
+            case INDEX:
+                int distance = ItemSearchIndex.allowedDistance(word, maxFuzzyDistance);
+                return Math.max(0, grams - GRAM_LENGTH * distance);
+            default:
+                return grams;
+        }
+    }
+
+    private long[] stampsOf(Word word) {
+        long[] stamps = new long[word.stripes.length];
+        for (int i = 0; i < stamps.length; i++)
+            stamps[i] = gramStamps.get(word.stripes[i]);
+        return stamps;
+    }
+
+    private static void addGramStripes(Set<Integer> stripes, String text) {
+        if (text == null)
+            return;
+
+        String normalized = normalize(text);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++)
+            stripes.add(gramStripe(normalized.substring(i, i + GRAM_LENGTH)));
+    }
+
+    private static int gramStripe(String gram) {
+        return Math.floorMod(gram.hashCode(), GRAM_STRIPES);
+    }
+
+    private static int itemStripe(int itemId) {
+        return Math.floorMod(itemId, ITEM_STRIPES);
+    }
+
+    private static List<Item> copyOf(List<Item> items) {
+        return items.stream()
+                .map(item -> new Item(
+                        item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getRequestId()
+                ))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String text;
+        private final long offset;
+        private final int size;
+    }
+
+    @AllArgsConstructor
+    private static class Word {
+        private final int[] stripes;
+        private final int requiredGrams;
+    }
+
+    @AllArgsConstructor
+    private static class Page {
+        private final List<Item> items;
+        private final long[] itemStamps;
+        private final List<Word> words;
+        private final long[][] wordStamps;
+        private final long changes;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.model.Comment;
+
+/**
+ * Публикуется после добавления отзыва к вещи.
+ */
+@Value
+public class CommentAddedEvent {
+    int commentId;
+    int itemId;
+
+    public static CommentAddedEvent of(Comment comment) {
+        return new CommentAddedEvent(comment.getId(), comment.getItem().getId());
+    }
+}
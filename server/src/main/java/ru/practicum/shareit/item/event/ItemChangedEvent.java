@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Публикуется после создания или изменения вещи. previousName и previousDescription
+ * содержат значения до изменения и равны null для новой вещи.
+ */
+@Value
+@AllArgsConstructor
+public class ItemChangedEvent {
+    int itemId;
+    String name;
+    String description;
+    boolean available;
+    String previousName;
+    String previousDescription;
+    Integer requestId;
+    Integer ownerId;
+
+    public ItemChangedEvent(int itemId, String name, String description, boolean available) {
+        this(itemId, name, description, available, null, null, null, null);
+    }
+
+    public static ItemChangedEvent of(Item item) {
+        return of(item, null, null);
+    }
+
+    public static ItemChangedEvent of(Item item, String previousName, String previousDescription) {
+        return new ItemChangedEvent(
+                item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()),
+                previousName, previousDescription, item.getRequestId(),
+                item.getOwner() != null ? item.getOwner().getId() : null
+        );
+    }
+}
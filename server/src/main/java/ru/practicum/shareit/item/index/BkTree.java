@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.*;
+
+/**
+ * BK-дерево слов по расстоянию Левенштейна. Слова только добавляются,
+ * удаленные из словаря слова отфильтровываются вызывающим кодом, а дерево пересобирается им же.
+ */
+final class BkTree {
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(node.word, word);
+            if (distance == 0)
+                return;
+
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Слова на расстоянии не больше maxDistance от word вместе с расстоянием.
+     */
+    Map<String, Integer> search(String word, int maxDistance) {
+        Map<String, Integer> found = new HashMap<>();
+        if (root == null)
+            return found;
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = distance(node.word, word);
+            if (distance <= maxDistance)
+                found.put(node.word, distance);
+
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance)
+                    stack.push(child.getValue());
+            }
+        }
+
+        return found;
+    }
+
+    static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++)
+            previous[j] = j;
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[second.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Подсказки названий доступных вещей по префиксу. Названия в нижнем регистре хранятся
+ * в отсортированной конкурентной карте, поэтому префиксный запрос - это чтение подкарты
+ * без блокировок. Строится при старте приложения и обновляется по событиям ItemChangedEvent.
+ * Для каждого названия хранится написание каждой доступной вещи; показывается написание вещи
+ * с наименьшим id, поэтому после переименования или скрытия вещи написание берется у оставшихся.
+ * События приходят только с этого узла, поэтому подсказки полностью перезагружаются раз
+ * в reload-interval: изменения с других узлов видны не позже чем через этот интервал.
+ */
+@Component
+@Slf4j
+public class ItemNameSuggester {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final Lock lock = new ReentrantLock();
+
+    private volatile State state = new State();
+    private List<ItemChangedEvent> eventsDuringReload;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemNameSuggester(
+            ItemRepository itemRepository,
+            @Value("${shareit.items.suggest.enabled:true}") boolean enabled
+    ) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Не более size различных названий доступных вещей, начинающихся с prefix, в алфавитном порядке.
+     */
+    public List<String> suggest(String prefix, int size) {
+        String key = normalize(prefix);
+        ConcurrentNavigableMap<String, NameEntry> matches =
+                state.names.subMap(key, true, key + Character.MAX_VALUE, false);
+
+        List<String> found = new ArrayList<>(size);
+        for (NameEntry entry : matches.values()) {
+            if (found.size() == size)
+                break;
+            String name = entry.name;
+            if (name != null)
+                found.add(name);
+        }
+
+        return found;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.items.suggest.reload-interval:PT10M}",
+            fixedDelayString = "${shareit.items.suggest.reload-interval:PT10M}"
+    )
+    public void scheduledReload() {
+        if (enabled && ready)
+            reload();
+    }
+
+    /**
+     * Заново читает названия из таблицы items в новую карту. События, пришедшие во время
+     * чтения, применяются и к текущей карте, и к новой после ее построения.
+     */
+    public synchronized void reload() {
+        lock.lock();
+        try {
+            eventsDuringReload = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        State newState = new State();
+        try {
+            int afterId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAllAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Item item : batch) {
+                    newState.put(ItemChangedEvent.of(item));
+                    afterId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                eventsDuringReload = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            eventsDuringReload.forEach(newState::put);
+            eventsDuringReload = null;
+            state = newState;
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("Подсказки названий вещей загружены: {} названий", newState.names.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled)
+            return;
+
+        lock.lock();
+        try {
+            if (eventsDuringReload != null)
+                eventsDuringReload.add(event);
+            state.put(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Изменяется под блокировкой lock или до публикации в поле state.
+     */
+    private static class State {
+        private final ConcurrentSkipListMap<String, NameEntry> names = new ConcurrentSkipListMap<>();
+        private final Map<Integer, String> availableItemNames = new HashMap<>();
+
+        void put(ItemChangedEvent event) {
+            String previous = availableItemNames.remove(event.getItemId());
+            if (previous != null) {
+                NameEntry entry = names.get(previous);
+                entry.remove(event.getItemId());
+                if (entry.isEmpty())
+                    names.remove(previous);
+            }
+
+            if (event.isAvailable() && event.getName() != null && !event.getName().isBlank()) {
+                String key = normalize(event.getName());
+                availableItemNames.put(event.getItemId(), key);
+                names.computeIfAbsent(key, k -> new NameEntry()).put(event.getItemId(), event.getName().trim());
+            }
+        }
+    }
+
+    /**
+     * Изменяется только вместе с State, name читается без блокировки.
+     */
+    private static class NameEntry {
+        private final TreeMap<Integer, String> namesByItemId = new TreeMap<>();
+        private volatile String name;
+
+        void put(int itemId, String itemName) {
+            namesByItemId.put(itemId, itemName);
+            name = namesByItemId.firstEntry().getValue();
+        }
+
+        void remove(int itemId) {
+            namesByItemId.remove(itemId);
+            name = namesByItemId.isEmpty() ? null : namesByItemId.firstEntry().getValue();
+        }
+
+        boolean isEmpty() {
+            return namesByItemId.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс вещей в памяти для поиска подстроки в названии и описании.
+ * Текст приводится к нижнему регистру и разбивается на триграммы, для каждой триграммы
+ * хранится отсортированный список идентификаторов вещей. Кандидаты, найденные пересечением
+ * списков, проверяются по тексту, поэтому результат совпадает с поиском LIKE.
+ * Для поиска с опечатками слова вещей собраны в BK-дерево: после точных совпадений
+ * возвращаются вещи, каждое слово запроса которых найдено с расстоянием до max-distance.
+ * Строится при старте приложения и обновляется по событиям ItemChangedEvent. События приходят
+ * только с этого узла, поэтому индекс полностью перестраивается раз в rebuild-interval: изменения,
+ * сделанные на других узлах, попадают в поиск не позже чем через этот интервал.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    public static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int maxFuzzyDistance;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+    private List<ItemChangedEvent> eventsDuringRebuild;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSearchIndex(
+            ItemRepository itemRepository,
+            @Value("${shareit.items.search.mode:like}") ItemSearchMode searchMode,
+            @Value("${shareit.items.search.fuzzy.max-distance:2}") int maxFuzzyDistance
+    ) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == ItemSearchMode.INDEX;
+        this.maxFuzzyDistance = maxFuzzyDistance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Индекс построен и запрос достаточно длинный, чтобы разбить его на триграммы.
+     */
+    public boolean supports(String text) {
+        return ready && text.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Идентификаторы доступных вещей, начиная с from-го результата: сначала вещи, название
+     * или описание которых содержит text, по возрастанию id, затем найденные с опечатками -
+     * по возрастанию суммарного расстояния и id.
+     */
+    public List<Integer> search(String text, int from, int size) {
+        String query = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            List<Integer> exact = searchExact(query, from + size);
+            if (exact.size() == from + size || maxFuzzyDistance == 0)
+                return page(exact, from, size);
+
+            List<Integer> found = new ArrayList<>(page(exact, from, size));
+            Set<Integer> exactIds = new HashSet<>(exact);
+            int skip = Math.max(0, from - exact.size());
+            for (int id : searchFuzzy(query, exact.size() + skip + size)) {
+                if (found.size() == size)
+                    break;
+                if (exactIds.contains(id))
+                    continue;
+                if (skip > 0)
+                    skip--;
+                else
+                    found.add(id);
+            }
+
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.items.search.rebuild-interval:PT10M}",
+            fixedDelayString = "${shareit.items.search.rebuild-interval:PT10M}"
+    )
+    public void scheduledRebuild() {
+        if (enabled && ready)
+            rebuild();
+    }
+
+    /**
+     * Полностью перестраивает индекс по таблице items. События, пришедшие во время
+     * перестроения, применяются к новому индексу после его построения. Доступно только
+     * в режиме поиска index: в остальных режимах события не применяются и индекс сразу бы устарел.
+     */
+    public synchronized Stats rebuild() {
+        if (!enabled)
+            throw new IllegalStateException("Индекс поиска вещей отключен: режим поиска не index.");
+
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State newState = new State();
+        try {
+            int afterId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAllAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Item item : batch) {
+                    newState.put(ItemChangedEvent.of(item));
+                    afterId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                eventsDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild.forEach(newState::put);
+            eventsDuringRebuild = null;
+            state = newState;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Stats stats = getStats();
+        log.info("Индекс поиска вещей перестроен: {}", stats);
+        return stats;
+    }
+
+    public Stats getStats() {
+        lock.readLock().lock();
+        try {
+            long postingsCount = state.grams.values().stream().mapToLong(IntPostingList::size).sum();
+            return new Stats(
+                    ready, state.items.size(), state.grams.size(), postingsCount, state.words.size(),
+                    state.vocabulary.size()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выполняется раньше остальных слушателей, чтобы кэш поиска сбрасывался уже по обновленному индексу.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            if (eventsDuringRebuild != null)
+                eventsDuringRebuild.add(event);
+            state.put(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Integer> searchExact(String query, int limit) {
+        List<IntPostingList> lists = new ArrayList<>();
+        for (String gram : gramsOf(query)) {
+            IntPostingList list = state.grams.get(gram);
+            if (list == null)
+                return Collections.emptyList();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntPostingList::size));
+
+        List<Integer> found = new ArrayList<>();
+        IntPostingList smallest = lists.get(0);
+        for (int i = 0; i < smallest.size() && found.size() < limit; i++) {
+            int id = smallest.get(i);
+            if (containsInAll(lists, id) && state.items.get(id).matches(query))
+                found.add(id);
+        }
+
+        return found;
+    }
+
+    /**
+     * Не больше limit лучших вещей, в которых для каждого слова запроса есть слово на допустимом
+     * расстоянии. Вес вещи - сумма минимальных расстояний по словам запроса. Лучшие вещи отбираются
+     * кучей размера limit, без сортировки всех найденных.
+     */
+    private List<Integer> searchFuzzy(String query, int limit) {
+        Map<Integer, Integer> distances = null;
+        for (String token : wordsOf(query)) {
+            Map<Integer, Integer> tokenDistances = new HashMap<>();
+            state.vocabulary.search(token, allowedDistance(token)).forEach((word, distance) -> {
+                IntPostingList list = state.words.get(word);
+                if (list == null)
+                    return;
+                for (int i = 0; i < list.size(); i++)
+                    tokenDistances.merge(list.get(i), distance, Math::min);
+            });
+
+            if (distances == null) {
+                distances = tokenDistances;
+            } else {
+                distances.keySet().retainAll(tokenDistances.keySet());
+                distances.replaceAll((id, distance) -> distance + tokenDistances.get(id));
+            }
+            if (distances.isEmpty())
+                return Collections.emptyList();
+        }
+        if (distances == null)
+            return Collections.emptyList();
+
+        Map<Integer, Integer> weights = distances;
+        Comparator<Integer> byWeight = Comparator.<Integer>comparingInt(weights::get).thenComparingInt(id -> id);
+        PriorityQueue<Integer> best = new PriorityQueue<>(byWeight.reversed());
+        weights.keySet().forEach(id -> {
+            if (!state.items.get(id).available)
+                return;
+            best.add(id);
+            if (best.size() > limit)
+                best.poll();
+        });
+
+        List<Integer> found = new ArrayList<>(best);
+        found.sort(byWeight);
+
+        return found;
+    }
+
+    private int allowedDistance(String word) {
+        return allowedDistance(word, maxFuzzyDistance);
+    }
+
+    /**
+     * Короткие слова ищутся только точно, слова до шести букв - с одной опечаткой.
+     */
+    public static int allowedDistance(String word, int maxFuzzyDistance) {
+        if (word.length() <= GRAM_LENGTH)
+            return 0;
+        if (word.length() <= 6)
+            return Math.min(1, maxFuzzyDistance);
+        return maxFuzzyDistance;
+    }
+
+    private static List<Integer> page(List<Integer> ids, int from, int size) {
+        if (from >= ids.size())
+            return Collections.emptyList();
+        return ids.subList(from, Math.min(ids.size(), from + size));
+    }
+
+    private static boolean containsInAll(List<IntPostingList> lists, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id))
+                return false;
+        }
+        return true;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++)
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        return grams;
+    }
+
+    /**
+     * Слова текста (буквы и цифры между разделителями): по ним ищутся опечатки.
+     */
+    public static Set<String> wordsOf(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (!word.isEmpty())
+                words.add(word);
+        }
+        return words;
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Stats {
+        private final boolean ready;
+        private final int items;
+        private final int grams;
+        private final long postings;
+        private final int words;
+        private final int vocabulary;
+    }
+
+    /**
+     * BK-дерево не умеет удалять слова, поэтому слова, пропавшие из всех вещей, остаются в нем
+     * до пересборки словаря. Словарь пересобирается из живых слов, когда мертвых становится больше,
+     * чем живых, и при полном перестроении индекса.
+     */
+    private static class State {
+        private final Map<String, IntPostingList> grams = new HashMap<>();
+        private final Map<String, IntPostingList> words = new HashMap<>();
+        private BkTree vocabulary = new BkTree();
+        private final Map<Integer, IndexedItem> items = new HashMap<>();
+
+        void put(ItemChangedEvent event) {
+            IndexedItem item = new IndexedItem(
+                    normalize(event.getName()), normalize(event.getDescription()), event.isAvailable()
+            );
+            IndexedItem previous = items.put(event.getItemId(), item);
+
+            Set<String> itemGrams = item.grams();
+            Set<String> itemWords = item.words();
+            if (previous != null) {
+                removeMissing(grams, previous.grams(), itemGrams, event.getItemId());
+                removeMissing(words, previous.words(), itemWords, event.getItemId());
+            }
+            itemGrams.forEach(gram -> grams.computeIfAbsent(gram, g -> new IntPostingList()).add(event.getItemId()));
+            itemWords.forEach(word -> {
+                words.computeIfAbsent(word, w -> new IntPostingList()).add(event.getItemId());
+                vocabulary.add(word);
+            });
+            if (vocabulary.size() > 2 * words.size())
+                compactVocabulary();
+        }
+
+        private void compactVocabulary() {
+            vocabulary = new BkTree();
+            words.keySet().forEach(vocabulary::add);
+        }
+
+        private static void removeMissing(
+                Map<String, IntPostingList> postings, Set<String> previousKeys, Set<String> keys, int itemId
+        ) {
+            for (String key : previousKeys) {
+                if (keys.contains(key))
+                    continue;
+                IntPostingList list = postings.get(key);
+                list.remove(itemId);
+                if (list.size() == 0)
+                    postings.remove(key);
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class IndexedItem {
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(name);
+            grams.addAll(gramsOf(description));
+            return grams;
+        }
+
+        Set<String> words() {
+            Set<String> words = wordsOf(name);
+            words.addAll(wordsOf(description));
+            return words;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Размер индекса поиска вещей (GET /actuator/itemsearch). Операции записи нет: порт actuator опубликован
+ * без аутентификации, а перестроение выполняется по расписанию shareit.items.search.rebuild-interval.
+ */
+@Component
+@Endpoint(id = "itemsearch")
+@RequiredArgsConstructor
+public class ItemSearchIndexEndpoint {
+    private final ItemSearchIndex itemSearchIndex;
+
+    @ReadOperation
+    public ItemSearchIndex.Stats stats() {
+        return itemSearchIndex.getStats();
+    }
+}
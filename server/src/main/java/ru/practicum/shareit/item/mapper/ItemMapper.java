@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDTO;
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.FreeIntervalDTO;
 import ru.practicum.shareit.item.dto.ItemDTO;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemBookingDetails;
@@ -50,6 +52,13 @@ public class ItemMapper {
         return itemDTO;
     }
 
+    public static FreeIntervalDTO toFreeIntervalDTO(FreeInterval freeInterval) {
+        return FreeIntervalDTO.builder()
+                .start(freeInterval.getStart())
+                .end(freeInterval.getEnd())
+                .build();
+    }
+
     public static Item toItem(ItemDTO itemDTO) {
         return Item.builder()
                 .id(itemDTO.getId())
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * Способ поиска вещей по тексту: LIKE по названию и описанию,
+ * полнотекстовый поиск PostgreSQL (только для PostgreSQL)
+ * или поиск подстроки по индексу в памяти (ItemSearchIndex).
+ */
+public enum ItemSearchMode {
+    LIKE,
+    FULL_TEXT,
+    INDEX
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
@@ -9,7 +10,9 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(int itemId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemIdInOrderByIdAsc(List<Integer> itemsId);
 }
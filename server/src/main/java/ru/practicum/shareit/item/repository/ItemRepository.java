@@ -2,21 +2,117 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Integer> {
     List<Item> findByOwnerId(int ownerId, Pageable pageable) throws UserNotFoundException;
 
-    @Query("FROM Item it " +
-            "WHERE LOWER (it.name) LIKE LOWER (concat('%',:text,'%')) " +
-            "OR LOWER (it.description) LIKE LOWER (concat('%',:text,'%')) " +
-            "AND it.available = TRUE"
+    /**
+     * SELECT ... FOR UPDATE в порядке id. Конфликтует с FOR KEY SHARE, которую берет проверка
+     * внешнего ключа bookings.item_id, поэтому вставки бронирований этих вещей ждут конца транзакции.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findAllByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.Item(" +
+            "it.id, it.name, it.description, it.available, it.requestId" +
+            ") FROM Item it " +
+            "WHERE (LOWER (it.name) LIKE LOWER (concat('%',:text,'%')) " +
+            "OR LOWER (it.description) LIKE LOWER (concat('%',:text,'%'))) " +
+            "AND it.available = TRUE " +
+            "ORDER BY it.id"
     )
     List<Item> findAvailableByNameOrDescription(String text, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.Item(" +
+            "it.id, it.name, it.description, it.available, it.requestId" +
+            ") FROM Item it " +
+            "WHERE it.id > ?1 " +
+            "ORDER BY it.id"
+    )
+    List<Item> findAllAfterId(int afterId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.Item(" +
+            "it.id, it.name, it.description, it.available, it.requestId" +
+            ") FROM Item it " +
+            "WHERE it.requestId IN :requestIds " +
+            "ORDER BY it.id"
+    )
+    List<Item> findAllByRequestIds(Collection<Integer> requestIds);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<Item> findByIdGreaterThanOrderByIdAsc(int afterId, Pageable pageable);
+
+    /**
+     * Полнотекстовый поиск по items.search_vector (schema-postgresql.sql), результаты упорядочены по рангу.
+     * Только для PostgreSQL.
+     */
+    @Query(value = "SELECT it.* FROM items it, plainto_tsquery('russian', :text) query " +
+            "WHERE it.search_vector @@ query " +
+            "AND it.available = TRUE " +
+            "ORDER BY ts_rank(it.search_vector, query) DESC, it.id",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<Item> findAvailableByFullText(String text, Pageable pageable);
+
+    /**
+     * Поиск доступных вещей, у которых нет активных бронирований, пересекающих [start, end].
+     * Занятость проверяется анти-соединением в том же запросе, поэтому пагинация остается точной.
+     */
+    @Query("SELECT new ru.practicum.shareit.item.model.Item(" +
+            "it.id, it.name, it.description, it.available, it.requestId" +
+            ") FROM Item it " +
+            "WHERE (LOWER (it.name) LIKE LOWER (concat('%',:text,'%')) " +
+            "OR LOWER (it.description) LIKE LOWER (concat('%',:text,'%'))) " +
+            "AND it.available = TRUE " +
+            "AND NOT EXISTS (" +
+            "SELECT b.id FROM Booking b " +
+            "WHERE b.item.id = it.id " +
+            "AND b.start <= :end " +
+            "AND b.end >= :start " +
+            "AND b.status NOT IN (:statuses)" +
+            ") " +
+            "ORDER BY it.id"
+    )
+    List<Item> findAvailableByNameOrDescriptionAndFreeBetween(
+            String text, LocalDateTime start, LocalDateTime end, List<BookingStatus> statuses, Pageable pageable
+    );
+
+    /**
+     * Полнотекстовый поиск свободных в [start, end] вещей. Неактивные статусы совпадают
+     * с BookingIntervalIndex.INACTIVE_BOOKING_STATUSES. Только для PostgreSQL.
+     */
+    @Query(value = "SELECT it.* FROM items it, plainto_tsquery('russian', :text) query " +
+            "WHERE it.search_vector @@ query " +
+            "AND it.available = TRUE " +
+            "AND NOT EXISTS (" +
+            "SELECT 1 FROM bookings b " +
+            "WHERE b.item_id = it.id " +
+            "AND b.start_date <= :end " +
+            "AND b.end_date >= :start " +
+            "AND b.status NOT IN ('REJECTED', 'CANCELED')" +
+            ") " +
+            "ORDER BY ts_rank(it.search_vector, query) DESC, it.id",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<Item> findAvailableByFullTextAndFreeBetween(
+            String text, LocalDateTime start, LocalDateTime end, Pageable pageable
+    );
 }
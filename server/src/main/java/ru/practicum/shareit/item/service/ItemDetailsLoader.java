@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Загрузка последних/следующих бронирований и комментариев вещей.
+ * При включенном параллельном режиме два запроса выполняются на ограниченном пуле, каждый - в своей
+ * read-only транзакции и со своим соединением, а третий - в вызывающем потоке в его транзакции.
+ * Вызывающий поток держит соединение, пока ждет пул, поэтому одновременных параллельных загрузок
+ * не больше max-concurrent-loads, и все они вместе занимают меньше соединений, чем есть в пуле
+ * соединений: иначе ожидающие потоки могли бы занять все соединения и ждать задач, которым
+ * соединений не осталось. Сверх лимита, как и при заполненной очереди, запросы выполняются
+ * в вызывающем потоке.
+ * Метрика saved - разница между суммой длительностей запросов и фактическим временем загрузки.
+ */
+@Component
+public class ItemDetailsLoader {
+    private static final int POOLED_QUERIES = 2;
+
+    private final boolean parallel;
+    private final ExecutorService executor;
+    private final Semaphore parallelLoads;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer parallelTimer;
+    private final Timer sequentialTimer;
+    private final Timer savedTimer;
+
+    @Autowired
+    public ItemDetailsLoader(
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${shareit.items.details.parallel.enabled:false}") boolean parallel,
+            @Value("${shareit.items.details.parallel.pool-size:4}") int poolSize,
+            @Value("${shareit.items.details.parallel.queue-capacity:64}") int queueCapacity,
+            @Value("${shareit.items.details.parallel.max-concurrent-loads:2}") int maxConcurrentLoads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize
+    ) {
+        if (parallel && maxConcurrentLoads * (POOLED_QUERIES + 1) >= connectionPoolSize)
+            throw new IllegalArgumentException(
+                    "Параллельные загрузки деталей вещей (" + maxConcurrentLoads + ") займут "
+                            + maxConcurrentLoads * (POOLED_QUERIES + 1) + " соединений из "
+                            + connectionPoolSize + " в пуле."
+            );
+
+        this.parallel = parallel;
+        this.executor = parallel ? newExecutor(poolSize, queueCapacity) : null;
+        this.parallelLoads = new Semaphore(maxConcurrentLoads);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.parallelTimer = meterRegistry.timer("shareit.items.details.duration", "mode", "parallel");
+        this.sequentialTimer = meterRegistry.timer("shareit.items.details.duration", "mode", "sequential");
+        this.savedTimer = meterRegistry.timer("shareit.items.details.saved");
+    }
+
+    public ItemDetails load(
+            Supplier<List<Booking>> lastBookings,
+            Supplier<List<Booking>> nextBookings,
+            Supplier<List<Comment>> comments
+    ) {
+        long startedAt = System.nanoTime();
+        if (!parallel || !parallelLoads.tryAcquire()) {
+            ItemDetails details = new ItemDetails(lastBookings.get(), nextBookings.get(), comments.get());
+            sequentialTimer.record(Duration.ofNanos(System.nanoTime() - startedAt));
+
+            return details;
+        }
+
+        try {
+            AtomicLong queriesNanos = new AtomicLong();
+            CompletableFuture<List<Booking>> nextFuture = submit(nextBookings, queriesNanos);
+            CompletableFuture<List<Comment>> commentsFuture = submit(comments, queriesNanos);
+            List<Booking> last = measure(lastBookings, queriesNanos);
+
+            ItemDetails details = new ItemDetails(last, join(nextFuture), join(commentsFuture));
+
+            long elapsedNanos = System.nanoTime() - startedAt;
+            parallelTimer.record(Duration.ofNanos(elapsedNanos));
+            savedTimer.record(Duration.ofNanos(Math.max(0, queriesNanos.get() - elapsedNanos)));
+
+            return details;
+        } finally {
+            parallelLoads.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null)
+            executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query, AtomicLong queriesNanos) {
+        return CompletableFuture.supplyAsync(
+                () -> measure(() -> transactionTemplate.execute(status -> query.get()), queriesNanos), executor
+        );
+    }
+
+    private static <T> T measure(Supplier<T> query, AtomicLong queriesNanos) {
+        long startedAt = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            queriesNanos.addAndGet(System.nanoTime() - startedAt);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static ExecutorService newExecutor(int poolSize, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-details-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemDetails {
+        private final List<Booking> lastBookings;
+        private final List<Booking> nextBookings;
+        private final List<Comment> comments;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.UserNotBookerOfItemException;
 import ru.practicum.shareit.item.exception.UserNotOwnerOfItemException;
@@ -9,6 +10,7 @@ import ru.practicum.shareit.item.model.ItemBookingDetails;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -22,7 +24,13 @@ public interface ItemService {
 
     List<ItemBookingDetails> getAllItemsByOwnerId(int ownerId, int from, int size) throws UserNotFoundException;
 
-    List<Item> getAvailableItemsByText(String text, int from, int size);
+    List<FreeInterval> getAvailability(
+            int itemId, int userId, LocalDateTime from, LocalDateTime to
+    ) throws ItemNotFoundException, UserNotFoundException;
+
+    List<String> suggestItemNames(String prefix, int size);
+
+    List<Item> getAvailableItemsByText(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     Comment addComment(Comment comment, int itemId, int userId) throws UserNotBookerOfItemException;
 }
\ No newline at end of file
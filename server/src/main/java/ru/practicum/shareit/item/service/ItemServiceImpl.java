@@ -1,46 +1,92 @@
 package ru.practicum.shareit.item.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemSearchCache;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.UserNotBookerOfItemException;
 import ru.practicum.shareit.item.exception.UserNotOwnerOfItemException;
+import ru.practicum.shareit.item.index.ItemNameSuggester;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemBookingDetails;
+import ru.practicum.shareit.item.model.ItemSearchMode;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserForeignKeyConstraint;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private static final List<BookingStatus> CANCELED_BOOKING_STATUSES =
             List.of(BookingStatus.CANCELED, BookingStatus.REJECTED);
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemDetailsLoader itemDetailsLoader;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemSearchMode searchMode;
+
+    @Autowired
+    public ItemServiceImpl(
+            ItemRepository itemRepository, UserCache userCache, BookingRepository bookingRepository,
+            CommentRepository commentRepository, ItemRequestRepository itemRequestRepository,
+            BookingIntervalIndex bookingIntervalIndex, ItemDetailsLoader itemDetailsLoader,
+            ItemSearchIndex itemSearchIndex, ItemNameSuggester itemNameSuggester, ItemSearchCache itemSearchCache,
+            ItemDetailsCache itemDetailsCache, ApplicationEventPublisher eventPublisher,
+            @Value("${shareit.items.search.mode:like}") ItemSearchMode searchMode
+    ) {
+        this.itemRepository = itemRepository;
+        this.userCache = userCache;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemDetailsLoader = itemDetailsLoader;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemNameSuggester = itemNameSuggester;
+        this.itemSearchCache = itemSearchCache;
+        this.itemDetailsCache = itemDetailsCache;
+        this.eventPublisher = eventPublisher;
+        this.searchMode = searchMode;
+    }
 
     @Override
     @Transactional
@@ -55,7 +101,19 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
-        return itemRepository.save(item);
+        Item addedItem;
+        try {
+            addedItem = itemRepository.save(item);
+        } catch (DataIntegrityViolationException e) {
+            if (UserForeignKeyConstraint.isViolatedBy(e)) {
+                userCache.invalidate(ownerId);
+                throw new UserNotFoundException(ownerId);
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(ItemChangedEvent.of(addedItem));
+
+        return addedItem;
     }
 
     @Override
@@ -66,16 +124,21 @@ public class ItemServiceImpl implements ItemService {
         User owner = getUser(ownerId);
         Item itemForUpdate = getItem(item.getId());
 
-        if (!itemForUpdate.getOwner().equals(owner))
+        if (itemForUpdate.getOwner().getId() != owner.getId())
             throw new UserNotOwnerOfItemException("Предмет " + item + "не принадлежит пользователю " + owner);
         else {
+            String previousName = itemForUpdate.getName();
+            String previousDescription = itemForUpdate.getDescription();
             if (item.getName() != null)
                 itemForUpdate.setName(item.getName());
             if (item.getDescription() != null)
                 itemForUpdate.setDescription(item.getDescription());
             if (item.getAvailable() != null)
                 itemForUpdate.setAvailable(item.getAvailable());
-            return itemRepository.save(itemForUpdate);
+            Item updatedItem = itemRepository.save(itemForUpdate);
+            eventPublisher.publishEvent(ItemChangedEvent.of(updatedItem, previousName, previousDescription));
+
+            return updatedItem;
         }
     }
 
@@ -83,33 +146,31 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public ItemBookingDetails getItem(int itemId, int userId) throws ItemNotFoundException, UserNotFoundException {
         User user = getUser(userId);
-        Item item = getItem(itemId);
+        ItemBookingDetails cachedDetails = itemDetailsCache.get(itemId, user.getId());
+        if (cachedDetails != null)
+            return cachedDetails;
 
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
+        long stamp = itemDetailsCache.stamp(itemId);
+        Item item = getItem(itemId);
+        ItemBookingDetails itemBookingDetails;
 
         if (user.getId() != item.getOwner().getId()) {
-            return new ItemBookingDetails(item, comments);
+            itemBookingDetails = new ItemBookingDetails(item, commentRepository.findAllByItemId(item.getId()));
         } else {
-            LocalDateTime currentDate = LocalDateTime.now();
-
-            Optional<Booking> lastBooking = bookingRepository
-                    .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
-                            List.of(item.getId()), user.getId(), currentDate, CANCELED_BOOKING_STATUSES
-                    )
-                    .stream().findFirst();
-
-            Optional<Booking> nextBooking = bookingRepository
-                    .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
-                            List.of(item.getId()), user.getId(), currentDate, CANCELED_BOOKING_STATUSES
-                    )
-                    .stream().findFirst();
-
+            ItemDetailsLoader.ItemDetails details = loadDetails(
+                    List.of(item.getId()), user.getId(), () -> commentRepository.findAllByItemId(item.getId())
+            );
 
-            return new ItemBookingDetails(
-                    item, lastBooking.orElse(null), nextBooking.orElse(null), comments
+            itemBookingDetails = new ItemBookingDetails(
+                    item,
+                    details.getLastBookings().stream().findFirst().orElse(null),
+                    details.getNextBookings().stream().findFirst().orElse(null),
+                    details.getComments()
             );
         }
+        itemDetailsCache.put(itemBookingDetails, user.getId(), stamp);
 
+        return itemBookingDetails;
     }
 
     @Override
@@ -125,33 +186,30 @@ public class ItemServiceImpl implements ItemService {
         if (items.isEmpty())
             throw new ItemNotFoundException();
 
-        LocalDateTime currentDate = LocalDateTime.now();
         List<Integer> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        ItemDetailsLoader.ItemDetails details = loadDetails(
+                itemIds, owner.getId(), () -> commentRepository.findAllByItemIdInOrderByIdAsc(itemIds)
+        );
 
-        Map<Integer, List<Booking>> lastBookings = bookingRepository
-                .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
-                        itemIds, owner.getId(), currentDate, CANCELED_BOOKING_STATUSES
-                )
-                .stream().collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Integer, Booking> lastBookings = details.getLastBookings()
+                .stream().collect(Collectors.toMap(
+                        b -> b.getItem().getId(), Function.identity(), (first, second) -> first
+                ));
 
-        Map<Integer, List<Booking>> nextBookings = bookingRepository
-                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
-                        itemIds, owner.getId(), currentDate, CANCELED_BOOKING_STATUSES
-                )
-                .stream().collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Integer, Booking> nextBookings = details.getNextBookings()
+                .stream().collect(Collectors.toMap(
+                        b -> b.getItem().getId(), Function.identity(), (first, second) -> first
+                ));
 
-        Map<Integer, List<Comment>> comments = commentRepository
-                .findAllByItemIdInOrderByIdAsc(itemIds)
+        Map<Integer, List<Comment>> comments = details.getComments()
                 .stream().collect(Collectors.groupingBy(b -> b.getItem().getId()));
 
         return items.stream()
                 .map(item ->
                         new ItemBookingDetails(
                                 item,
-                                lastBookings.getOrDefault(item.getId(), Collections.emptyList())
-                                        .stream().findFirst().orElse(null),
-                                nextBookings.getOrDefault(item.getId(), Collections.emptyList())
-                                        .stream().findFirst().orElse(null),
+                                lastBookings.get(item.getId()),
+                                nextBookings.get(item.getId()),
                                 comments.getOrDefault(item.getId(), Collections.emptyList())
                         )
                 )
@@ -160,18 +218,72 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Item> getAvailableItemsByText(String text, int from, int size) {
+    public List<FreeInterval> getAvailability(
+            int itemId, int userId, LocalDateTime from, LocalDateTime to
+    ) throws ItemNotFoundException, UserNotFoundException {
+        if (!from.isBefore(to))
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания.");
+
+        getUser(userId);
+        Item item = getItem(itemId);
+        if (!item.getAvailable())
+            return Collections.emptyList();
+
+        return bookingIntervalIndex.getTimeline(itemId).freeIntervals(from, to);
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, int size) {
         if (size <= 0)
             throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+        if (prefix == null || prefix.isBlank() || !itemNameSuggester.isEnabled())
+            return Collections.emptyList();
+
+        return itemNameSuggester.suggest(prefix, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> getAvailableItemsByText(
+            String text, LocalDateTime start, LocalDateTime end, int from, int size
+    ) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+        if ((start == null) != (end == null))
+            throw new IllegalArgumentException("Начало и окончание периода задаются вместе.");
+        if (start != null && !start.isBefore(end))
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания.");
 
         if (text == null || text.isBlank())
             return Collections.emptyList();
         else {
             Pageable pageable = PageRequest.of(from / size, size);
-            return itemRepository.findAvailableByNameOrDescription(text, pageable);
+            if (start != null) {
+                if (searchMode == ItemSearchMode.FULL_TEXT)
+                    return itemRepository.findAvailableByFullTextAndFreeBetween(text, start, end, pageable);
+
+                return itemRepository.findAvailableByNameOrDescriptionAndFreeBetween(
+                        text, start, end, BookingIntervalIndex.INACTIVE_BOOKING_STATUSES, pageable
+                );
+            }
+
+            return itemSearchCache.get(
+                    text, pageable.getOffset(), size, () -> searchAvailableItems(text, pageable)
+            );
         }
     }
 
+    private List<Item> searchAvailableItems(String text, Pageable pageable) {
+        if (searchMode == ItemSearchMode.INDEX && itemSearchIndex.supports(text))
+            return findAllByIdsInOrder(
+                    itemSearchIndex.search(text, (int) pageable.getOffset(), pageable.getPageSize())
+            );
+        if (searchMode == ItemSearchMode.FULL_TEXT)
+            return itemRepository.findAvailableByFullText(text, pageable);
+
+        return itemRepository.findAvailableByNameOrDescription(text, pageable);
+    }
+
     @Override
     @Transactional
     public Comment addComment(Comment comment, int itemId, int userId) throws UserNotBookerOfItemException {
@@ -185,11 +297,40 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(booking.getBooker());
         comment.setCreated(currentDate);
 
-        return commentRepository.save(comment);
+        Comment addedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(CommentAddedEvent.of(addedComment));
+
+        return addedComment;
+    }
+
+    private List<Item> findAllByIdsInOrder(List<Integer> ids) {
+        if (ids.isEmpty())
+            return Collections.emptyList();
+
+        Map<Integer, Item> items = itemRepository.findAllById(ids)
+                .stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private ItemDetailsLoader.ItemDetails loadDetails(
+            List<Integer> itemIds, int ownerId, Supplier<List<Comment>> comments
+    ) {
+        LocalDateTime currentDate = LocalDateTime.now();
+
+        return itemDetailsLoader.load(
+                () -> bookingRepository.findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
+                        itemIds, ownerId, currentDate, CANCELED_BOOKING_STATUSES
+                ),
+                () -> bookingRepository.findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
+                        itemIds, ownerId, currentDate, CANCELED_BOOKING_STATUSES
+                ),
+                comments
+        );
     }
 
     private User getUser(int userId) throws UserNotFoundException {
-        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        return userCache.getUser(userId);
     }
 
     private Item getItem(int itemId) throws ItemNotFoundException {
@@ -2,9 +2,13 @@ package ru.practicum.shareit.request;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDTO;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDTO;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -41,6 +45,16 @@ public class ItemRequestController {
         return ItemRequestMapper.toItemRequestDTO(addedItemRequest);
     }
 
+    @GetMapping("/matches")
+    public List<ItemRequestMatchDTO> getRequestMatches(
+            @RequestHeader(OWNER_ID_HEADER) Integer ownerId,
+            @RequestParam(defaultValue = "20") Integer size
+    ) {
+        return itemRequestService.getRequestMatches(ownerId, size)
+                .stream().map(ItemRequestMapper::toItemRequestMatchDTO)
+                .collect(Collectors.toList());
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDTO getRequest(
             @RequestHeader(OWNER_ID_HEADER) Integer requestorId, @PathVariable Integer requestId
@@ -58,14 +72,28 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDTO> getAllRequests(
+    public ResponseEntity<List<ItemRequestDTO>> getAllRequests(
             @RequestHeader(OWNER_ID_HEADER) Integer requestorId,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String after
     ) {
-        return itemRequestService.getAllRequests(requestorId, from, size)
-                .stream().map(ItemRequestMapper::toItemRequestDTO)
-                .collect(Collectors.toList());
+        Slice<ItemRequest> itemRequests = after == null ?
+                itemRequestService.getAllRequests(requestorId, from, size) :
+                itemRequestService.getAllRequests(requestorId, SeekCursor.decode(after), size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (itemRequests.hasNext()) {
+            ItemRequest lastItemRequest = itemRequests.getContent().get(itemRequests.getNumberOfElements() - 1);
+            response.header(
+                    SeekCursor.NEXT_CURSOR_HEADER,
+                    new SeekCursor(lastItemRequest.getCreated(), lastItemRequest.getId()).encode()
+            );
+        }
+
+        return response.body(
+                itemRequests.stream().map(ItemRequestMapper::toItemRequestDTO).collect(Collectors.toList())
+        );
     }
 
 }
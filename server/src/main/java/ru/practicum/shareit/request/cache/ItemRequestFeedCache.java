@@ -0,0 +1,284 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Последние capacity запросов вещей вместе с ответившими на них вещами, по убыванию (created, id).
+ * Заполняется при старте приложения и обновляется по событиям ItemRequestAddedEvent и ItemChangedEvent;
+ * при переполнении вытесняются самые старые запросы. События приходят только от своего узла, поэтому
+ * буфер периодически перечитывается из базы в новое состояние, которое заменяет текущее целиком:
+ * запросы и вещи других узлов появляются в нем, а удаленные пропадают не позже чем через reload-interval.
+ * События, пришедшие во время чтения, повторяются на новом состоянии. Страница общей ленты отдается из памяти,
+ * если она целиком попадает в буфер после исключения запросов самого пользователя,
+ * иначе запрос уходит в базу.
+ */
+@Component
+@Slf4j
+public class ItemRequestFeedCache {
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparing((Entry entry) -> entry.created)
+            .thenComparingInt(entry -> entry.id)
+            .reversed();
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final Counter hits;
+    private final Counter misses;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state;
+    private List<Consumer<State>> changesDuringLoad;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemRequestFeedCache(
+            ItemRequestRepository itemRequestRepository, ItemRepository itemRepository, MeterRegistry meterRegistry,
+            @Value("${shareit.requests.feed.cache.enabled:false}") boolean enabled,
+            @Value("${shareit.requests.feed.cache.capacity:1000}") int capacity
+    ) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.hits = meterRegistry.counter("shareit.requests.feed.cache", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.requests.feed.cache", "result", "miss");
+        this.state = new State(capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            load();
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.requests.feed.cache.reload-interval:PT1M}",
+            fixedDelayString = "${shareit.requests.feed.cache.reload-interval:PT1M}"
+    )
+    public void scheduledLoad() {
+        if (enabled && ready)
+            load();
+    }
+
+    /**
+     * Загружает последние запросы из базы в новое состояние. События, пришедшие во время
+     * загрузки, применяются и к текущему состоянию, и к новому перед его публикацией.
+     */
+    public synchronized void load() {
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State newState = new State(capacity);
+        List<ItemRequest> itemRequests;
+        try {
+            itemRequests = itemRequestRepository.findAll(PageRequest.of(
+                    0, capacity, Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"))
+            )).getContent();
+            List<Integer> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+            Map<Integer, List<Item>> items = requestIds.isEmpty() ? Collections.emptyMap() :
+                    itemRepository.findAllByRequestIds(requestIds)
+                            .stream().collect(Collectors.groupingBy(Item::getRequestId));
+
+            for (ItemRequest itemRequest : itemRequests) {
+                Entry entry = new Entry(
+                        itemRequest.getId(), itemRequest.getDescription(),
+                        itemRequest.getRequestor().getId(), itemRequest.getCreated()
+                );
+                for (Item item : items.getOrDefault(itemRequest.getId(), Collections.emptyList()))
+                    entry.items.put(item.getId(), item);
+                newState.entries.add(entry);
+                newState.entriesById.put(entry.id, entry);
+            }
+            newState.complete = itemRequests.size() < capacity;
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad.forEach(change -> change.accept(newState));
+            changesDuringLoad = null;
+            state = newState;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Лента запросов загружена: {} запросов", itemRequests.size());
+    }
+
+    /**
+     * Страница запросов других пользователей после курсора after (или с начала ленты).
+     * Пустой результат, если буфер не может ответить на запрос целиком.
+     */
+    public Optional<Slice<ItemRequest>> getPage(int requestorId, SeekCursor after, Pageable pageable) {
+        if (!enabled || !ready)
+            return Optional.empty();
+
+        lock.readLock().lock();
+        try {
+            SortedSet<Entry> candidates = after == null ? state.entries :
+                    state.entries.tailSet(new Entry(after.getId(), null, 0, after.getTimestamp()), false);
+
+            List<ItemRequest> found = new ArrayList<>();
+            long skip = pageable.getOffset();
+            for (Entry entry : candidates) {
+                if (entry.requestorId == requestorId)
+                    continue;
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                if (found.size() == pageable.getPageSize()) {
+                    hits.increment();
+                    return Optional.of(new SliceImpl<>(found, pageable, true));
+                }
+                found.add(entry.toItemRequest());
+            }
+
+            if (!state.complete) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(new SliceImpl<>(found, pageable, false));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestAdded(ItemRequestAddedEvent event) {
+        if (!enabled)
+            return;
+
+        Entry entry = new Entry(event.getRequestId(), event.getDescription(), event.getRequestorId(), event.getCreated());
+        apply(changed -> changed.addRequest(entry));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled || event.getRequestId() == null)
+            return;
+
+        Item item = new Item(
+                event.getItemId(), event.getName(), event.getDescription(), event.isAvailable(), event.getRequestId()
+        );
+        apply(changed -> changed.putItem(item));
+    }
+
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringLoad != null)
+                changesDuringLoad.add(change);
+            change.accept(state);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Изменяется под блокировкой lock или до публикации в поле state.
+     */
+    private static class State {
+        private final int capacity;
+        private final TreeSet<Entry> entries = new TreeSet<>(NEWEST_FIRST);
+        private final Map<Integer, Entry> entriesById = new HashMap<>();
+        private boolean complete;
+
+        State(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void addRequest(Entry entry) {
+            if (entriesById.containsKey(entry.id))
+                return;
+            if (!complete && entries.size() >= capacity && NEWEST_FIRST.compare(entry, entries.last()) > 0)
+                return;
+
+            // копия: одно событие применяется и к текущему состоянию, и к загружаемому
+            Entry added = new Entry(entry.id, entry.description, entry.requestorId, entry.created);
+            entries.add(added);
+            entriesById.put(added.id, added);
+            evictOverflow();
+        }
+
+        void putItem(Item item) {
+            Entry entry = entriesById.get(item.getRequestId());
+            if (entry != null)
+                entry.items.put(item.getId(), item);
+        }
+
+        private void evictOverflow() {
+            while (entries.size() > capacity) {
+                entriesById.remove(entries.pollLast().id);
+                complete = false;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final int id;
+        private final String description;
+        private final int requestorId;
+        private final LocalDateTime created;
+        private final SortedMap<Integer, Item> items = new TreeMap<>();
+
+        Entry(int id, String description, int requestorId, LocalDateTime created) {
+            this.id = id;
+            this.description = description;
+            this.requestorId = requestorId;
+            this.created = created;
+        }
+
+        ItemRequest toItemRequest() {
+            return ItemRequest.builder()
+                    .id(id)
+                    .description(description)
+                    .created(created)
+                    .items(new ArrayList<>(items.values()))
+                    .build();
+        }
+    }
+}
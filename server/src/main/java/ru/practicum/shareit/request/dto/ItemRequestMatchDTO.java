@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ItemRequestMatchDTO {
+    private int requestId;
+    private String requestDescription;
+    private int itemId;
+    private String itemName;
+    private double score;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.Value;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется после добавления запроса вещи.
+ */
+@Value
+public class ItemRequestAddedEvent {
+    int requestId;
+    String description;
+    int requestorId;
+    LocalDateTime created;
+
+    public static ItemRequestAddedEvent of(ItemRequest itemRequest) {
+        return new ItemRequestAddedEvent(
+                itemRequest.getId(), itemRequest.getDescription(),
+                itemRequest.getRequestor().getId(), itemRequest.getCreated()
+        );
+    }
+}
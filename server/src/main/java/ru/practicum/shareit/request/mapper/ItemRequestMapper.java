@@ -3,7 +3,9 @@ package ru.practicum.shareit.request.mapper;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.ItemDTO;
 import ru.practicum.shareit.request.dto.ItemRequestDTO;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDTO;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 
 import java.util.Collections;
 import java.util.stream.Collectors;
@@ -31,6 +33,16 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public static ItemRequestMatchDTO toItemRequestMatchDTO(ItemRequestMatch itemRequestMatch) {
+        return ItemRequestMatchDTO.builder()
+                .requestId(itemRequestMatch.getRequestId())
+                .requestDescription(itemRequestMatch.getRequestDescription())
+                .itemId(itemRequestMatch.getItemId())
+                .itemName(itemRequestMatch.getItemName())
+                .score(itemRequestMatch.getScore())
+                .build();
+    }
+
     public static ItemRequest toItemRequest(ItemRequestDTO itemRequestDTO) {
         return ItemRequest.builder()
                 .id(itemRequestDTO.getId())
@@ -0,0 +1,441 @@
+package ru.practicum.shareit.request.match;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Подбор вещей владельцев к открытым запросам (запросам без ответивших вещей).
+ * Описания запросов и названия с описаниями доступных вещей разбиваются на слова с грубым отсечением окончаний,
+ * для слов хранятся инвертированные списки запросов и вещей. Новая вещь или новый запрос сравниваются
+ * только с документами другой стороны, у которых есть общие слова; оценка - косинусная мера по наборам слов.
+ * Для каждого владельца хранится не больше top-size * MATCHES_PER_TOP лучших совпадений не ниже min-score,
+ * а отдаются top-size из них. Если после ответа на запрос или снятия вещи у владельца, часть совпадений
+ * которого была отброшена, осталось меньше top-size, его совпадения пересчитываются по инвертированным спискам.
+ * Индекс строится при старте приложения и обновляется по событиям ItemChangedEvent и ItemRequestAddedEvent.
+ * События приходят только с этого узла, поэтому индекс полностью перестраивается раз в reload-interval:
+ * изменения с других узлов попадают в подбор не позже чем через этот интервал.
+ */
+@Component
+@Slf4j
+public class ItemRequestMatcher {
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MATCHES_PER_TOP = 4;
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String ENDINGS = "аеёиоуыэюяьй";
+    private static final Set<String> STOP_WORDS = Set.of(
+            "для", "нужна", "нужен", "нужно", "нужны", "ищу", "хочу", "кто", "есть", "или", "как", "что", "без"
+    );
+    private static final Comparator<ItemRequestMatch> BEST_FIRST = Comparator
+            .comparingDouble(ItemRequestMatch::getScore).reversed()
+            .thenComparing(Comparator.comparingInt(ItemRequestMatch::getRequestId).reversed())
+            .thenComparingInt(ItemRequestMatch::getItemId);
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int topSize;
+    private final int matchesCapacity;
+    private final double minScore;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+    private List<Consumer<State>> changesDuringLoad;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemRequestMatcher(
+            ItemRequestRepository itemRequestRepository, ItemRepository itemRepository,
+            @Value("${shareit.requests.matching.enabled:false}") boolean enabled,
+            @Value("${shareit.requests.matching.top-size:20}") int topSize,
+            @Value("${shareit.requests.matching.min-score:0.3}") double minScore
+    ) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.topSize = topSize;
+        this.matchesCapacity = topSize * MATCHES_PER_TOP;
+        this.minScore = minScore;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled)
+            load();
+    }
+
+    @Scheduled(
+            initialDelayString = "${shareit.requests.matching.reload-interval:PT10M}",
+            fixedDelayString = "${shareit.requests.matching.reload-interval:PT10M}"
+    )
+    public void scheduledLoad() {
+        if (enabled && ready)
+            load();
+    }
+
+    /**
+     * Загружает вещи и открытые запросы пачками по id в новый индекс и подбирает совпадения.
+     * События, пришедшие во время загрузки, применяются и к текущему индексу, и к новому
+     * перед его публикацией.
+     */
+    public synchronized void load() {
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State newState = new State();
+        try {
+            int afterId = 0;
+            List<Item> itemBatch;
+            do {
+                itemBatch = itemRepository.findByIdGreaterThanOrderByIdAsc(
+                        afterId, PageRequest.of(0, LOAD_BATCH_SIZE)
+                );
+                for (Item item : itemBatch) {
+                    newState.putItem(
+                            item.getId(), item.getName(), item.getDescription(),
+                            Boolean.TRUE.equals(item.getAvailable()), item.getOwner().getId()
+                    );
+                    afterId = item.getId();
+                }
+            } while (itemBatch.size() == LOAD_BATCH_SIZE);
+
+            afterId = 0;
+            List<ItemRequest> requestBatch;
+            do {
+                requestBatch = itemRequestRepository.findOpenAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (ItemRequest itemRequest : requestBatch) {
+                    newState.putRequest(
+                            itemRequest.getId(), itemRequest.getDescription(), itemRequest.getRequestor().getId()
+                    );
+                    afterId = itemRequest.getId();
+                }
+            } while (requestBatch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad.forEach(change -> change.accept(newState));
+            changesDuringLoad = null;
+            state = newState;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info(
+                "Индекс подбора вещей к запросам построен: вещей {}, запросов {}",
+                newState.items.size(), newState.requests.size()
+        );
+    }
+
+    /**
+     * Лучшие совпадения вещей владельца с открытыми запросами, по убыванию оценки, не больше top-size.
+     */
+    public List<ItemRequestMatch> getMatches(int ownerId, int size) {
+        lock.readLock().lock();
+        try {
+            List<ItemRequestMatch> matches = state.matchesByOwner.getOrDefault(ownerId, Collections.emptyList());
+            return new ArrayList<>(matches.subList(0, Math.min(Math.min(size, topSize), matches.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestAdded(ItemRequestAddedEvent event) {
+        if (!enabled)
+            return;
+
+        apply(changed -> changed.putRequest(event.getRequestId(), event.getDescription(), event.getRequestorId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled || event.getOwnerId() == null)
+            return;
+
+        apply(changed -> {
+            if (event.getRequestId() != null)
+                changed.closeRequest(event.getRequestId());
+            changed.putItem(
+                    event.getItemId(), event.getName(), event.getDescription(), event.isAvailable(), event.getOwnerId()
+            );
+        });
+    }
+
+    /**
+     * Число запросов, для которых запомнены владельцы с совпадениями.
+     */
+    int trackedRequests() {
+        lock.readLock().lock();
+        try {
+            return state.ownersByRequest.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringLoad != null)
+                changesDuringLoad.add(change);
+            change.accept(state);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Изменяется под блокировкой lock или до публикации в поле state.
+     */
+    private class State {
+        private final Map<String, Set<Integer>> requestPostings = new HashMap<>();
+        private final Map<Integer, RequestEntry> requests = new HashMap<>();
+        private final Map<String, Set<Integer>> itemPostings = new HashMap<>();
+        private final Map<Integer, ItemEntry> items = new HashMap<>();
+        private final Map<Integer, Set<Integer>> itemsByOwner = new HashMap<>();
+        private final Map<Integer, List<ItemRequestMatch>> matchesByOwner = new HashMap<>();
+        private final Map<Integer, Set<Integer>> ownersByRequest = new HashMap<>();
+        private final Set<Integer> truncatedOwners = new HashSet<>();
+
+        void putRequest(int requestId, String description, int requestorId) {
+            if (requests.containsKey(requestId))
+                return;
+
+            RequestEntry request = new RequestEntry(requestId, description, requestorId, tokensOf(description));
+            scoreAgainst(itemPostings, request.tokens).forEach((itemId, common) -> {
+                ItemEntry item = items.get(itemId);
+                if (item.ownerId != requestorId)
+                    addMatch(item.ownerId, request, item, score(common, request.tokens, item.tokens));
+            });
+
+            requests.put(requestId, request);
+            request.tokens.forEach(token -> requestPostings.computeIfAbsent(token, t -> new HashSet<>()).add(requestId));
+        }
+
+        void putItem(int itemId, String name, String description, boolean available, int ownerId) {
+            ItemEntry previous = items.remove(itemId);
+            if (previous != null) {
+                removePostings(itemPostings, previous.tokens, itemId);
+                removeFromGroup(itemsByOwner, previous.ownerId, itemId);
+                removeItemMatches(previous.ownerId, itemId);
+            }
+            if (!available)
+                return;
+
+            Set<String> tokens = tokensOf(name);
+            tokens.addAll(tokensOf(description));
+            ItemEntry item = new ItemEntry(itemId, name, ownerId, tokens);
+            items.put(itemId, item);
+            tokens.forEach(token -> itemPostings.computeIfAbsent(token, t -> new HashSet<>()).add(itemId));
+            itemsByOwner.computeIfAbsent(ownerId, id -> new HashSet<>()).add(itemId);
+
+            matchItem(item);
+        }
+
+        void closeRequest(int requestId) {
+            RequestEntry request = requests.remove(requestId);
+            if (request == null)
+                return;
+
+            removePostings(requestPostings, request.tokens, requestId);
+            Set<Integer> owners = ownersByRequest.remove(requestId);
+            if (owners == null)
+                return;
+
+            for (int ownerId : owners) {
+                List<ItemRequestMatch> matches = matchesByOwner.get(ownerId);
+                if (matches == null)
+                    continue;
+                matches.removeIf(match -> match.getRequestId() == requestId);
+                afterMatchesRemoved(ownerId, matches);
+            }
+        }
+
+        private void matchItem(ItemEntry item) {
+            scoreAgainst(requestPostings, item.tokens).forEach((requestId, common) -> {
+                RequestEntry request = requests.get(requestId);
+                if (request.requestorId != item.ownerId)
+                    addMatch(item.ownerId, request, item, score(common, request.tokens, item.tokens));
+            });
+        }
+
+        /**
+         * Удаляет совпадения вещи и убирает владельца из ownersByRequest для запросов,
+         * с которыми у него не осталось совпадений.
+         */
+        private void removeItemMatches(int ownerId, int itemId) {
+            List<ItemRequestMatch> matches = matchesByOwner.get(ownerId);
+            if (matches == null)
+                return;
+
+            Set<Integer> requestIds = new HashSet<>();
+            for (ItemRequestMatch match : matches) {
+                if (match.getItemId() == itemId)
+                    requestIds.add(match.getRequestId());
+            }
+            matches.removeIf(match -> match.getItemId() == itemId);
+            for (ItemRequestMatch match : matches)
+                requestIds.remove(match.getRequestId());
+            requestIds.forEach(requestId -> removeFromGroup(ownersByRequest, requestId, ownerId));
+
+            afterMatchesRemoved(ownerId, matches);
+        }
+
+        private void afterMatchesRemoved(int ownerId, List<ItemRequestMatch> matches) {
+            if (matches.size() < topSize && truncatedOwners.contains(ownerId))
+                rematchOwner(ownerId);
+            else if (matches.isEmpty())
+                matchesByOwner.remove(ownerId);
+        }
+
+        /**
+         * Заново подбирает совпадения всех вещей владельца: отброшенные при переполнении
+         * совпадения занимают место удаленных.
+         */
+        private void rematchOwner(int ownerId) {
+            truncatedOwners.remove(ownerId);
+            List<ItemRequestMatch> matches = matchesByOwner.remove(ownerId);
+            if (matches != null)
+                matches.forEach(match -> removeFromGroup(ownersByRequest, match.getRequestId(), ownerId));
+
+            for (int itemId : itemsByOwner.getOrDefault(ownerId, Collections.emptySet()))
+                matchItem(items.get(itemId));
+        }
+
+        private void addMatch(int ownerId, RequestEntry request, ItemEntry item, double score) {
+            if (score < minScore)
+                return;
+
+            List<ItemRequestMatch> matches = matchesByOwner.computeIfAbsent(ownerId, id -> new ArrayList<>());
+            ItemRequestMatch match = new ItemRequestMatch(request.id, request.description, item.id, item.name, score);
+            int position = Collections.binarySearch(matches, match, BEST_FIRST);
+            if (position >= 0)
+                return;
+            if (-position - 1 >= matchesCapacity) {
+                truncatedOwners.add(ownerId);
+                return;
+            }
+
+            matches.add(-position - 1, match);
+            ownersByRequest.computeIfAbsent(request.id, id -> new HashSet<>()).add(ownerId);
+            if (matches.size() > matchesCapacity) {
+                ItemRequestMatch evicted = matches.remove(matches.size() - 1);
+                truncatedOwners.add(ownerId);
+                if (matches.stream().noneMatch(kept -> kept.getRequestId() == evicted.getRequestId()))
+                    removeFromGroup(ownersByRequest, evicted.getRequestId(), ownerId);
+            }
+        }
+    }
+
+    private static void removeFromGroup(Map<Integer, Set<Integer>> groups, int key, int id) {
+        Set<Integer> ids = groups.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty())
+            groups.remove(key);
+    }
+
+    /**
+     * Число общих слов с каждым документом, в котором встречается хотя бы одно из слов tokens.
+     */
+    private static Map<Integer, Integer> scoreAgainst(Map<String, Set<Integer>> postings, Set<String> tokens) {
+        Map<Integer, Integer> common = new HashMap<>();
+        for (String token : tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids != null)
+                ids.forEach(id -> common.merge(id, 1, Integer::sum));
+        }
+        return common;
+    }
+
+    private static double score(int common, Set<String> first, Set<String> second) {
+        return common / Math.sqrt((double) first.size() * second.size());
+    }
+
+    private static void removePostings(Map<String, Set<Integer>> postings, Set<String> tokens, int id) {
+        for (String token : tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids == null)
+                continue;
+            ids.remove(id);
+            if (ids.isEmpty())
+                postings.remove(token);
+        }
+    }
+
+    static Set<String> tokensOf(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null)
+            return tokens;
+
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.length() < MIN_WORD_LENGTH || STOP_WORDS.contains(word))
+                continue;
+            tokens.add(stem(word));
+        }
+        return tokens;
+    }
+
+    /**
+     * Отбрасывает конечные гласные, мягкий знак и й, чтобы "дрель", "дрели" и "дрелью" давали одно слово.
+     */
+    private static String stem(String word) {
+        int end = word.length();
+        while (end > MIN_WORD_LENGTH && ENDINGS.indexOf(word.charAt(end - 1)) >= 0)
+            end--;
+        return word.substring(0, end);
+    }
+
+    @AllArgsConstructor
+    private static class RequestEntry {
+        private final int id;
+        private final String description;
+        private final int requestorId;
+        private final Set<String> tokens;
+    }
+
+    @AllArgsConstructor
+    private static class ItemEntry {
+        private final int id;
+        private final String name;
+        private final int ownerId;
+        private final Set<String> tokens;
+    }
+}
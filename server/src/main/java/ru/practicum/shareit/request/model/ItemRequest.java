@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -21,11 +22,12 @@ public class ItemRequest {
     @Column(name = "id")
     private int id;
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id")
     private User requestor;
     private LocalDateTime created;
     @OneToMany
     @JoinColumn(name = "request_id")
+    @BatchSize(size = 100)
     private List<Item> items;
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.Value;
+
+/**
+ * Вещь владельца, которая может подойти к открытому запросу другого пользователя.
+ */
+@Value
+public class ItemRequestMatch {
+    int requestId;
+    String requestDescription;
+    int itemId;
+    String itemName;
+    double score;
+}
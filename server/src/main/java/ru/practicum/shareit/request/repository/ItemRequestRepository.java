@@ -1,16 +1,50 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
+    @EntityGraph(attributePaths = "items")
+    Optional<ItemRequest> findWithItemsById(int id);
+
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(int requestorId);
 
-    Page<ItemRequest> findByRequestorIdNot(int requestorId, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<ItemRequest> findByRequestorIdNot(int requestorId, Pageable pageable);
+
+    /**
+     * Запросы других пользователей, идущие после запроса (created, id) при сортировке по убыванию этих полей.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> :requestorId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id))"
+    )
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<ItemRequest> findByRequestorIdNotAfter(int requestorId, LocalDateTime created, int id, Pageable pageable);
+
+    /**
+     * Запросы без ответивших вещей с id больше afterId, по возрастанию id.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.id > :afterId " +
+            "AND NOT EXISTS (SELECT it.id FROM Item it WHERE it.requestId = r.id) " +
+            "ORDER BY r.id"
+    )
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<ItemRequest> findOpenAfterId(int afterId, Pageable pageable);
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.util.List;
@@ -15,5 +18,9 @@ public interface ItemRequestService {
 
     List<ItemRequest> getAllRequestsByRequestorId(int requestorId);
 
-    List<ItemRequest> getAllRequests(int requestorId, int from, int size);
+    Slice<ItemRequest> getAllRequests(int requestorId, int from, int size);
+
+    Slice<ItemRequest> getAllRequests(int requestorId, SeekCursor after, int size);
+
+    List<ItemRequestMatch> getRequestMatches(int ownerId, int size) throws UserNotFoundException;
 }
@@ -1,68 +1,177 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
+import ru.practicum.shareit.request.cache.ItemRequestFeedCache;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.request.match.ItemRequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.repository.UserForeignKeyConstraint;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Sort FEED_SORT = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
 
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemRequestFeedCache itemRequestFeedCache;
+    private final ItemRequestMatcher itemRequestMatcher;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository, UserRepository userRepository) {
+    public ItemRequestServiceImpl(
+            ItemRequestRepository itemRequestRepository, UserCache userCache, ItemRepository itemRepository,
+            ItemRequestFeedCache itemRequestFeedCache, ItemRequestMatcher itemRequestMatcher,
+            ApplicationEventPublisher eventPublisher
+    ) {
         this.itemRequestRepository = itemRequestRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.itemRepository = itemRepository;
+        this.itemRequestFeedCache = itemRequestFeedCache;
+        this.itemRequestMatcher = itemRequestMatcher;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public ItemRequest addRequest(ItemRequest itemRequest, int requestorId) throws UserNotFoundException {
         User requestor = getUser(requestorId);
 
         itemRequest.setRequestor(requestor);
-        itemRequest.setCreated(LocalDateTime.now());
+        itemRequest.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
-        return itemRequestRepository.save(itemRequest);
+        ItemRequest addedItemRequest;
+        try {
+            addedItemRequest = itemRequestRepository.save(itemRequest);
+        } catch (DataIntegrityViolationException e) {
+            if (UserForeignKeyConstraint.isViolatedBy(e)) {
+                userCache.invalidate(requestorId);
+                throw new UserNotFoundException(requestorId);
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(ItemRequestAddedEvent.of(addedItemRequest));
+
+        return addedItemRequest;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequest getRequest(
             int requestId, int requestorId
     ) throws ItemRequestNotFoundException, UserNotFoundException {
         getUser(requestorId);
 
         return itemRequestRepository
-                .findById(requestId)
+                .findWithItemsById(requestId)
                 .orElseThrow(() -> new ItemNotFoundException(requestId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequest> getAllRequestsByRequestorId(int requestorId) {
         getUser(requestorId);
 
-        return itemRequestRepository.findByRequestorIdOrderByCreatedDesc(requestorId);
+        return withItems(itemRequestRepository.findByRequestorIdOrderByCreatedDesc(requestorId));
     }
 
     @Override
-    public List<ItemRequest> getAllRequests(int requestorId, int from, int size) {
-        return itemRequestRepository
-                .findByRequestorIdNot(requestorId, PageRequest.of(from, size, Sort.by("created").descending()))
-                .getContent();
+    @Transactional(readOnly = true)
+    public Slice<ItemRequest> getAllRequests(int requestorId, int from, int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+
+        Pageable pageable = PageRequest.of(from / size, size, FEED_SORT);
+        Optional<Slice<ItemRequest>> cachedItemRequests = itemRequestFeedCache.getPage(requestorId, null, pageable);
+        if (cachedItemRequests.isPresent())
+            return cachedItemRequests.get();
+
+        Slice<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNot(requestorId, pageable);
+
+        return new SliceImpl<>(withItems(itemRequests.getContent()), pageable, itemRequests.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ItemRequest> getAllRequests(int requestorId, SeekCursor after, int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+
+        Pageable pageable = PageRequest.of(0, size, FEED_SORT);
+        Optional<Slice<ItemRequest>> cachedItemRequests = itemRequestFeedCache.getPage(requestorId, after, pageable);
+        if (cachedItemRequests.isPresent())
+            return cachedItemRequests.get();
+
+        Slice<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNotAfter(
+                requestorId, after.getTimestamp(), after.getId(), pageable
+        );
+
+        return new SliceImpl<>(withItems(itemRequests.getContent()), pageable, itemRequests.hasNext());
+    }
+
+    @Override
+    public List<ItemRequestMatch> getRequestMatches(int ownerId, int size) throws UserNotFoundException {
+        if (size <= 0)
+            throw new IllegalArgumentException("Размер не должен быть меньше единицы.");
+
+        getUser(ownerId);
+        if (!itemRequestMatcher.isEnabled())
+            return Collections.emptyList();
+
+        return itemRequestMatcher.getMatches(ownerId, size);
+    }
+
+    /**
+     * Загружает вещи всех запросов страницы одним запросом вместо ленивой загрузки items для каждого запроса.
+     * Вещи отдаются в отсоединенных копиях запросов: коллекция items управляемых сущностей не меняется.
+     */
+    private List<ItemRequest> withItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty())
+            return itemRequests;
+
+        List<Integer> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Integer, List<Item>> items = itemRepository.findAllByRequestIds(requestIds)
+                .stream().collect(Collectors.groupingBy(Item::getRequestId));
+
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequest.builder()
+                        .id(itemRequest.getId())
+                        .description(itemRequest.getDescription())
+                        .requestor(itemRequest.getRequestor())
+                        .created(itemRequest.getCreated())
+                        .items(items.getOrDefault(itemRequest.getId(), Collections.emptyList()))
+                        .build()
+                ).collect(Collectors.toList());
     }
 
     private User getUser(int userId) throws UserNotFoundException {
-        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        return userCache.getUser(userId);
     }
 }
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш пользователей для проверки заголовка X-Sharer-User-Id. Хранит копии найденных
+ * пользователей (id, имя, email) вне контекста персистентности и каждый раз возвращает новую копию,
+ * поэтому её можно ставить в связи сохраняемых сущностей: каскадов на пользователя нет,
+ * Hibernate берет только id. Отсутствующие пользователи не кэшируются.
+ * Ограничен по размеру и времени жизни, запись удаляется после фиксации изменения или удаления
+ * пользователя. Пользователь, прочитанный до такого удаления, в кэш не попадает: перед чтением
+ * запоминается отметка полосы id пользователя, и запись кладется, только если отметка не сменилась.
+ * События об изменениях приходят только с этого узла: пользователь, измененный или удаленный на другом узле,
+ * остается в кэше не дольше expire-after-write (по умолчанию минута). Вставка строки со ссылкой на такого
+ * удаленного пользователя нарушает внешний ключ (UserForeignKeyConstraint): сервисы удаляют запись
+ * из кэша и выбрасывают UserNotFoundException.
+ * Метрики cache.* с тегом cache=users.
+ */
+@Component
+public class UserCache {
+    private static final int STAMP_STRIPES = 256;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Cache<Integer, User> cache;
+    private final AtomicLongArray invalidations = new AtomicLongArray(STAMP_STRIPES);
+
+    @Autowired
+    public UserCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.users.cache.enabled:false}") boolean enabled,
+            @Value("${shareit.users.cache.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.users.cache.expire-after-write:1m}") Duration expireAfterWrite
+    ) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    /**
+     * Пользователь по id. Если кэш выключен, возвращается управляемая сущность из репозитория.
+     */
+    public User getUser(int userId) throws UserNotFoundException {
+        if (!enabled)
+            return load(userId);
+
+        User cached = cache.getIfPresent(userId);
+        if (cached != null)
+            return copyOf(cached);
+
+        long stamp = invalidations.get(stripe(userId));
+        User user = copyOf(load(userId));
+        cache.asMap().compute(userId, (id, current) -> invalidations.get(stripe(id)) == stamp ? user : current);
+
+        return copyOf(user);
+    }
+
+    public void invalidate(int userId) {
+        invalidations.incrementAndGet(stripe(userId));
+        cache.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    private User load(int userId) {
+        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+    }
+
+    private static int stripe(int userId) {
+        return Math.floorMod(userId, STAMP_STRIPES);
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+}
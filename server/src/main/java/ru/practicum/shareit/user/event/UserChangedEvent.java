@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Value;
+
+/**
+ * Публикуется после изменения или удаления пользователя.
+ */
+@Value
+public class UserChangedEvent {
+    int userId;
+
+    public static UserChangedEvent of(int userId) {
+        return new UserChangedEvent(userId);
+    }
+}
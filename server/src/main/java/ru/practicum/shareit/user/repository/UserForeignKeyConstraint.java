@@ -0,0 +1,42 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Внешние ключи на users из schema.sql. Их нарушение при вставке означает, что пользователь,
+ * взятый из UserCache, уже удален на другом узле.
+ */
+@UtilityClass
+public class UserForeignKeyConstraint {
+    public static final Set<String> NAMES = Set.of("fk_requestor", "fk_owner", "fk_booker", "fk_author");
+
+    private static final Set<String> FOREIGN_KEY_VIOLATION_SQL_STATES = Set.of(
+            "23503", // PostgreSQL
+            "23506"  // H2
+    );
+
+    public static boolean isViolatedBy(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && isUserForeignKeyViolation((SQLException) cause))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isUserForeignKeyViolation(SQLException e) {
+        // ошибки пакетной вставки приходят цепочкой через getNextException
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (FOREIGN_KEY_VIOLATION_SQL_STATES.contains(next.getSQLState()) && next.getMessage() != null) {
+                String message = next.getMessage().toLowerCase(Locale.ROOT);
+                if (NAMES.stream().anyMatch(message::contains))
+                    return true;
+            }
+        }
+        return false;
+    }
+}
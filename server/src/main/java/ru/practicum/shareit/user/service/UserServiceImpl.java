@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.event.UserChangedEvent;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -12,10 +15,16 @@ import java.util.List;
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(
+            UserRepository userRepository, UserCache userCache, ApplicationEventPublisher eventPublisher
+    ) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -30,20 +39,22 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User updateUser(User user) throws UserNotFoundException {
-        User userForUpdate = userRepository.findById(user.getId())
-                .orElseThrow(() -> new UserNotFoundException(user.getId()));
+        User userForUpdate = findUser(user.getId());
         if (user.getEmail() != null)
             userForUpdate.setEmail(user.getEmail());
         if (user.getName() != null)
             userForUpdate.setName(user.getName());
 
-        return userRepository.save(userForUpdate);
+        User updatedUser = userRepository.save(userForUpdate);
+        eventPublisher.publishEvent(UserChangedEvent.of(updatedUser.getId()));
+
+        return updatedUser;
     }
 
     @Override
     @Transactional(readOnly = true)
     public User getUser(int userId) throws UserNotFoundException {
-        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        return userCache.getUser(userId);
     }
 
     @Override
@@ -55,8 +66,13 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(int userId) throws UserNotFoundException {
-        User user = getUser(userId);
+        User user = findUser(userId);
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(userId));
+    }
+
+    private User findUser(int userId) throws UserNotFoundException {
+        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
     }
 }
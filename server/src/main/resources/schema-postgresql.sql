@@ -0,0 +1,15 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD COLUMN during TSRANGE GENERATED ALWAYS AS (tsrange(start_date, end_date, '[]')) STORED;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_booking_item_during EXCLUDE USING gist (item_id WITH =, during WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+
+ALTER TABLE items
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', name), 'A') || setweight(to_tsvector('russian', description), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING gin (search_vector);
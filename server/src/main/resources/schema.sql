@@ -1,4 +1,9 @@
+DROP TABLE IF EXISTS comments;
+DROP TABLE IF EXISTS bookings;
+DROP TABLE IF EXISTS items;
+DROP TABLE IF EXISTS requests;
 DROP TABLE IF EXISTS users;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
@@ -7,7 +12,6 @@ CREATE TABLE IF NOT EXISTS users (
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-DROP TABLE IF EXISTS requests;
 CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     description CHARACTER VARYING NOT NULL,
@@ -17,7 +21,6 @@ CREATE TABLE IF NOT EXISTS requests (
     CONSTRAINT fk_requestor FOREIGN KEY (requestor_id) REFERENCES users(id)
 );
 
-DROP TABLE IF EXISTS items;
 CREATE TABLE IF NOT EXISTS items (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(512) NOT NULL,
@@ -30,7 +33,6 @@ CREATE TABLE IF NOT EXISTS items (
     CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests(id)
 );
 
-DROP TABLE IF EXISTS bookings;
 CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     start_date  TIMESTAMP WITHOUT TIME ZONE,
@@ -45,7 +47,6 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 
-DROP TABLE IF EXISTS comments;
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text CHARACTER VARYING NOT NULL,
@@ -55,4 +56,21 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comment PRIMARY KEY (ID),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_end ON bookings (item_id, booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id, id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -15,9 +17,11 @@ import ru.practicum.shareit.booking.dto.BookingDTO;
 import ru.practicum.shareit.booking.exception.BadBookingStatusForApproveException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.user.auth.AuthConstant;
 
 import java.nio.charset.StandardCharsets;
@@ -26,6 +30,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -82,6 +87,33 @@ class BookingControllerTest {
         checkResult(booking, responseBookingDTO);
     }
 
+    @Test
+    void addBookings() throws Exception {
+        String error = generator.nextObject(String.class);
+        when(bookingService.addBookings(anyList(), anyInt())).thenReturn(List.of(
+                BookingBatchResult.success(booking), BookingBatchResult.failure(error)
+        ));
+
+        BookingDTO requestBookingDTO = BookingDTO.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItem().getId())
+                .build();
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1)
+                        .content(objectMapper.writeValueAsString(List.of(requestBookingDTO, requestBookingDTO)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].booking.id").value(booking.getId()))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].booking").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value(error));
+    }
+
     @Test
     void approveBooking() throws Exception {
         booking.setStatus(BookingStatus.APPROVED);
@@ -96,6 +128,27 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(booking.getStatus().name()));
     }
 
+    @Test
+    void approveBookings() throws Exception {
+        booking.setStatus(BookingStatus.APPROVED);
+        String error = generator.nextObject(String.class);
+        when(bookingService.approveBookings(anyList(), anyInt(), anyBoolean())).thenReturn(List.of(
+                BookingBatchResult.success(booking), BookingBatchResult.failure(error)
+        ));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1)
+                        .param("approved", "true")
+                        .content(objectMapper.writeValueAsString(List.of(booking.getId(), 2)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(booking.getId()))
+                .andExpect(jsonPath("$[0].status").value(BookingStatus.APPROVED.name()))
+                .andExpect(jsonPath("$[1].bookingId").value(2))
+                .andExpect(jsonPath("$[1].status").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value(error));
+    }
+
     @Test
     void shouldReturnBadRequestAfterThrowBadBookingStatusForApproveExceptionWhenApproveBooking() throws Exception {
         when(bookingService.approveBooking(anyInt(), anyInt(), anyBoolean()))
@@ -135,7 +188,7 @@ class BookingControllerTest {
     @Test
     void getAllBookingsOfUserByState() throws Exception {
         when(bookingService.getAllBookingsOfUserByState(anyInt(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(List.of(booking));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
 
         MvcResult result = mockMvc.perform(get("/bookings")
                         .param("state", BookingState.ALL.name())
@@ -153,7 +206,7 @@ class BookingControllerTest {
     @Test
     void getAllBookingsOfUserItems() throws Exception {
         when(bookingService.getAllBookingsOfUserItems(anyInt(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(List.of(booking));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
 
         MvcResult result = mockMvc.perform(get("/bookings/owner")
                         .param("state", BookingState.ALL.name())
@@ -168,6 +221,55 @@ class BookingControllerTest {
         checkResult(booking, response.get(0));
     }
 
+    @Test
+    void getAllBookingsOfUserByStateAfterCursor() throws Exception {
+        SeekCursor after = new SeekCursor(LocalDateTime.now(), 10);
+        when(bookingService.getAllBookingsOfUserByState(anyInt(), any(BookingState.class), eq(after), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), true));
+
+        MvcResult result = mockMvc.perform(get("/bookings")
+                        .param("state", BookingState.ALL.name())
+                        .param("size", "1")
+                        .param("after", after.encode())
+                        .header(AuthConstant.OWNER_ID_HEADER, 1))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<BookingDTO> response = objectMapper.readValue(
+                result.getResponse().getContentAsString(), new TypeReference<>() {
+                }
+        );
+
+        assertAll(
+                () -> checkResult(booking, response.get(0)),
+                () -> assertEquals(
+                        new SeekCursor(booking.getStart(), booking.getId()),
+                        SeekCursor.decode(result.getResponse().getHeader(SeekCursor.NEXT_CURSOR_HEADER))
+                )
+        );
+    }
+
+    @Test
+    void shouldNotSendCursorAfterLastPage() throws Exception {
+        when(bookingService.getAllBookingsOfUserItems(anyInt(), any(BookingState.class), anyInt(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), false));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner")
+                        .param("size", "1")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(result.getResponse().getHeader(SeekCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenGetAllBookingsOfUserItemsWithBadCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .param("after", "bad cursor")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1))
+                .andExpect(status().isBadRequest());
+    }
+
     private void checkResult(Booking booking, BookingDTO bookingDTO) {
         assertAll(
                 () -> assertEquals(booking.getId(), bookingDTO.getId()),
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BookingIntervalIndexTest {
+
+    private final BookingRepository mockBookingRepository = mock(BookingRepository.class);
+
+    private final BookingIntervalIndex bookingIntervalIndex = new BookingIntervalIndex(
+            mockBookingRepository, true, Duration.ofMinutes(5)
+    );
+
+    private final int itemId = 1;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void beforeEach() {
+        when(mockBookingRepository.findIntervalsByItemIdAndStatusNotIn(anyInt(), anyList())).thenReturn(List.of(
+                new BookingInterval(1, now.plusDays(1), now.plusDays(2)),
+                new BookingInterval(2, now.plusDays(5), now.plusDays(10)),
+                new BookingInterval(3, now.plusDays(3), now.plusDays(4))
+        ));
+    }
+
+    @Test
+    void hasOverlap() {
+        assertAll(
+                () -> assertTrue(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(6), now.plusDays(7))),
+                () -> assertTrue(bookingIntervalIndex.hasOverlap(itemId, now, now.plusDays(11))),
+                () -> assertTrue(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(2), now.plusDays(2).plusHours(1))),
+                () -> assertTrue(bookingIntervalIndex.hasOverlap(itemId, now.minusDays(1), now.plusDays(1))),
+                () -> assertFalse(bookingIntervalIndex.hasOverlap(itemId, now, now.plusHours(1))),
+                () -> assertFalse(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(4).plusHours(1), now.plusDays(4).plusHours(2))),
+                () -> assertFalse(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(11), now.plusDays(12)))
+        );
+        verify(mockBookingRepository, times(1)).findIntervalsByItemIdAndStatusNotIn(anyInt(), anyList());
+    }
+
+    @Test
+    void freeIntervals() {
+        LocalDateTime from = now.plusDays(1).plusHours(12);
+        LocalDateTime to = now.plusDays(6);
+
+        List<FreeInterval> freeIntervals = bookingIntervalIndex.getTimeline(itemId).freeIntervals(from, to);
+
+        assertAll(
+                () -> assertEquals(2, freeIntervals.size()),
+                () -> assertEquals(
+                        ItemTimeline.toEpochMicros(now.plusDays(2)) + 1,
+                        ItemTimeline.toEpochMicros(freeIntervals.get(0).getStart())
+                ),
+                () -> assertEquals(
+                        ItemTimeline.toEpochMicros(now.plusDays(3)) - 1,
+                        ItemTimeline.toEpochMicros(freeIntervals.get(0).getEnd())
+                ),
+                () -> assertEquals(
+                        ItemTimeline.toEpochMicros(now.plusDays(4)) + 1,
+                        ItemTimeline.toEpochMicros(freeIntervals.get(1).getStart())
+                ),
+                () -> assertEquals(
+                        ItemTimeline.toEpochMicros(now.plusDays(5)) - 1,
+                        ItemTimeline.toEpochMicros(freeIntervals.get(1).getEnd())
+                ),
+                () -> assertTrue(bookingIntervalIndex.getTimeline(itemId)
+                        .freeIntervals(now.plusDays(6), now.plusDays(7)).isEmpty()),
+                () -> assertEquals(1, bookingIntervalIndex.getTimeline(itemId)
+                        .freeIntervals(now.plusDays(11), now.plusDays(12)).size())
+        );
+    }
+
+    @Test
+    void onBookingChanged() {
+        assertFalse(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(12), now.plusDays(13)));
+
+        bookingIntervalIndex.onBookingChanged(
+                new BookingChangedEvent(4, itemId, now.plusDays(11), now.plusDays(14), BookingStatus.WAITING)
+        );
+        assertTrue(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(12), now.plusDays(13)));
+
+        bookingIntervalIndex.onBookingChanged(
+                new BookingChangedEvent(4, itemId, now.plusDays(11), now.plusDays(14), BookingStatus.REJECTED)
+        );
+        assertAll(
+                () -> assertFalse(bookingIntervalIndex.hasOverlap(itemId, now.plusDays(12), now.plusDays(13))),
+                () -> assertEquals(3, bookingIntervalIndex.getTimeline(itemId).size())
+        );
+    }
+
+    @Test
+    void shouldReloadTimelineAfterExpiration() {
+        BookingIntervalIndex expiringIndex = new BookingIntervalIndex(mockBookingRepository, true, Duration.ZERO);
+
+        expiringIndex.hasOverlap(itemId, now, now.plusHours(1));
+        expiringIndex.hasOverlap(itemId, now, now.plusHours(1));
+
+        verify(mockBookingRepository, times(2)).findIntervalsByItemIdAndStatusNotIn(anyInt(), anyList());
+    }
+}
@@ -1,22 +1,30 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.hibernate.Hibernate;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 class BookingRepositoryTest {
@@ -63,9 +71,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+                .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
                         booker.getId(), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
-                );
+                ).getContent();
 
         assertAll(
                 () -> assertEquals(1, foundBookings.size()),
@@ -74,7 +82,7 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdAndStartAfterOrderByStartDesc() {
+    void findAllByBookerIdAndStartAfterOrderByStartDescIdDesc() {
         createBooking(
                 LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), BookingStatus.WAITING
         );
@@ -84,9 +92,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByBookerIdAndStartAfterOrderByStartDesc(
+                .findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(
                         booker.getId(), LocalDateTime.now(), Pageable.unpaged()
-                );
+                ).getContent();
 
 
         assertAll(
@@ -96,7 +104,7 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc() {
+    void findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc() {
         createBooking(
                 LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), BookingStatus.WAITING
         );
@@ -106,9 +114,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(
+                .findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
                         booker.getId(), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
-                );
+                ).getContent();
 
 
         assertAll(
@@ -118,7 +126,7 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc() {
+    void findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc() {
         createBooking(
                 LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusHours(1), BookingStatus.WAITING
         );
@@ -128,9 +136,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
-                        List.of(item.getId()), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
-                );
+                .findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+                        owner.getId(), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
+                ).getContent();
 
 
         assertAll(
@@ -140,7 +148,7 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByItemIdInAndStartAfterOrderByStartDesc() {
+    void findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc() {
         createBooking(
                 LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), BookingStatus.WAITING
         );
@@ -150,9 +158,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByItemIdInAndStartAfterOrderByStartDesc(
-                        List.of(item.getId()), LocalDateTime.now(), Pageable.unpaged()
-                );
+                .findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
+                        owner.getId(), LocalDateTime.now(), Pageable.unpaged()
+                ).getContent();
 
 
         assertAll(
@@ -162,7 +170,7 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc() {
+    void findAllByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc() {
         createBooking(
                 LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), BookingStatus.WAITING
         );
@@ -172,9 +180,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(
-                        List.of(item.getId()), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
-                );
+                .findAllByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
+                        owner.getId(), LocalDateTime.now(), LocalDateTime.now(), Pageable.unpaged()
+                ).getContent();
 
 
         assertAll(
@@ -185,7 +193,7 @@ class BookingRepositoryTest {
 
 
     @Test
-    void findAllByItemIdAndStartBetweenAndEndBetween() {
+    void findAllOverlappingByItemIdAndStatusNotIn() {
         createBooking(
                 LocalDateTime.now().minusHours(2),
                 LocalDateTime.now().minusHours(1).minusMinutes(1),
@@ -197,8 +205,9 @@ class BookingRepositoryTest {
         testEntityManager.flush();
 
         List<Booking> foundBookings = bookingRepository
-                .findAllByItemIdAndStartBetweenAndEndBetween(
-                        item.getId(), LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(1)
+                .findAllOverlappingByItemIdAndStatusNotIn(
+                        item.getId(), LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(1),
+                        List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)
                 );
 
 
@@ -208,6 +217,47 @@ class BookingRepositoryTest {
         );
     }
 
+    @Test
+    void findAllOverlappingByItemIdAndStatusNotInShouldFindEnclosingBooking() {
+        createBooking(
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(5), BookingStatus.REJECTED
+        );
+        Booking savedBooking = createBooking(
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(5), BookingStatus.APPROVED
+        );
+        testEntityManager.flush();
+
+        List<Booking> foundBookings = bookingRepository
+                .findAllOverlappingByItemIdAndStatusNotIn(
+                        item.getId(), LocalDateTime.now().plusHours(2), LocalDateTime.now().plusHours(3),
+                        List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)
+                );
+
+        assertAll(
+                () -> assertEquals(1, foundBookings.size()),
+                () -> assertEquals(savedBooking.getId(), foundBookings.get(0).getId())
+        );
+    }
+
+    @Test
+    void findIntervalsByItemIdAndStatusNotIn() {
+        createBooking(
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2), BookingStatus.REJECTED
+        );
+        Booking savedBooking = createBooking(
+                LocalDateTime.now().plusHours(3), LocalDateTime.now().plusHours(4), BookingStatus.WAITING
+        );
+        testEntityManager.flush();
+
+        List<BookingInterval> foundIntervals = bookingRepository
+                .findIntervalsByItemIdAndStatusNotIn(item.getId(), List.of(BookingStatus.REJECTED));
+
+        assertAll(
+                () -> assertEquals(1, foundIntervals.size()),
+                () -> assertEquals(savedBooking.getId(), foundIntervals.get(0).getBookingId())
+        );
+    }
+
     @Test
     void findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn() {
         createBooking(
@@ -258,6 +308,213 @@ class BookingRepositoryTest {
         );
     }
 
+    @Test
+    void shouldReturnOneLastAndNextBookingPerItem() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        createBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Booking lastBooking = createBooking(now.minusDays(1), now.minusHours(1), BookingStatus.APPROVED);
+        createBooking(now.minusHours(2), now.minusHours(1), BookingStatus.REJECTED);
+        Booking nextBooking = createBooking(now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        createBooking(now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<Booking> lastBookings = bookingRepository
+                .findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn(
+                        List.of(item.getId()), owner.getId(), now, List.of(BookingStatus.REJECTED)
+                );
+        List<Booking> nextBookings = bookingRepository
+                .findNextByItemIdsAndItemOwnerIdAndStartIsAfterAndStatusNotIn(
+                        List.of(item.getId()), owner.getId(), now, List.of(BookingStatus.REJECTED)
+                );
+
+        assertAll(
+                () -> assertEquals(1, lastBookings.size()),
+                () -> assertEquals(lastBooking.getId(), lastBookings.get(0).getId()),
+                () -> assertTrue(Hibernate.isInitialized(lastBookings.get(0).getBooker())),
+                () -> assertEquals(1, nextBookings.size()),
+                () -> assertEquals(nextBooking.getId(), nextBookings.get(0).getId())
+        );
+    }
+
+    @Test
+    void findAllOverlappingByItemIdInAndStatusNotIn() {
+        Booking savedBooking = createBooking(
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.APPROVED
+        );
+        createBooking(
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.CANCELED
+        );
+        createBooking(
+                LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), BookingStatus.WAITING
+        );
+        testEntityManager.flush();
+
+        List<Booking> foundBookings = bookingRepository.findAllOverlappingByItemIdInAndStatusNotIn(
+                List.of(item.getId()), LocalDateTime.now(), LocalDateTime.now().plusDays(3),
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)
+        );
+
+        assertAll(
+                () -> assertEquals(1, foundBookings.size()),
+                () -> assertEquals(savedBooking.getId(), foundBookings.get(0).getId())
+        );
+    }
+
+    @Test
+    void updateStatusOfWaitingByIdInAndItemOwnerId() {
+        Booking waitingBooking = createBooking(
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.WAITING
+        );
+        Booking rejectedBooking = createBooking(
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), BookingStatus.REJECTED
+        );
+        testEntityManager.flush();
+
+        int foreignOwnerUpdated = bookingRepository.updateStatusOfWaitingByIdInAndItemOwnerId(
+                List.of(waitingBooking.getId()), booker.getId(), BookingStatus.APPROVED
+        );
+        int updated = bookingRepository.updateStatusOfWaitingByIdInAndItemOwnerId(
+                List.of(waitingBooking.getId(), rejectedBooking.getId()), owner.getId(), BookingStatus.APPROVED
+        );
+
+        assertAll(
+                () -> assertEquals(0, foreignOwnerUpdated),
+                () -> assertEquals(1, updated),
+                () -> assertEquals(
+                        BookingStatus.APPROVED,
+                        bookingRepository.findById(waitingBooking.getId()).orElseThrow().getStatus()
+                ),
+                () -> assertEquals(
+                        BookingStatus.REJECTED,
+                        bookingRepository.findById(rejectedBooking.getId()).orElseThrow().getStatus()
+                )
+        );
+    }
+
+    @Test
+    void insertAll() {
+        List<Booking> bookings = List.of(
+                Booking.builder().booker(booker).item(item).status(BookingStatus.WAITING)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build(),
+                Booking.builder().booker(booker).item(item).status(BookingStatus.WAITING)
+                        .start(LocalDateTime.now().plusDays(3)).end(LocalDateTime.now().plusDays(4)).build()
+        );
+
+        bookingRepository.insertAll(bookings);
+        testEntityManager.clear();
+
+        assertAll(
+                () -> assertTrue(bookings.get(0).getId() > 0),
+                () -> assertTrue(bookings.get(1).getId() > bookings.get(0).getId()),
+                () -> assertEquals(
+                        List.of(bookings.get(1).getId(), bookings.get(0).getId()),
+                        bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(booker.getId(), Pageable.unpaged())
+                                .stream().map(Booking::getId).collect(Collectors.toList())
+                )
+        );
+    }
+
+    @Test
+    void shouldFetchItemAndBookerWithBookings() {
+        createBooking(
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.WAITING
+        );
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<Booking> foundBookings = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(
+                booker.getId(), Pageable.unpaged()
+        ).getContent();
+
+        assertAll(
+                () -> assertEquals(1, foundBookings.size()),
+                () -> assertTrue(Hibernate.isInitialized(foundBookings.get(0).getItem())),
+                () -> assertTrue(Hibernate.isInitialized(foundBookings.get(0).getBooker())),
+                () -> assertFalse(Hibernate.isInitialized(foundBookings.get(0).getItem().getOwner()))
+        );
+    }
+
+    @Test
+    void findAllByBookerIdAndStateAfter() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Booking firstBooking = createBooking(
+                now.plusDays(3), now.plusDays(4), BookingStatus.WAITING
+        );
+        Booking secondBooking = createBooking(
+                now.plusDays(2), now.plusDays(3), BookingStatus.WAITING
+        );
+        Booking thirdBooking = createBooking(
+                now.plusDays(1), now.plusDays(2), BookingStatus.WAITING
+        );
+        testEntityManager.flush();
+
+        List<Booking> firstPage = bookingRepository.findAllByBookerIdAndStateAfter(
+                booker.getId(), BookingState.FUTURE, LocalDateTime.now(), null, 2
+        ).getContent();
+        Booking lastOnPage = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.findAllByBookerIdAndStateAfter(
+                booker.getId(), BookingState.FUTURE, LocalDateTime.now(),
+                new SeekCursor(lastOnPage.getStart(), lastOnPage.getId()), 2
+        ).getContent();
+
+        assertAll(
+                () -> assertEquals(
+                        List.of(firstBooking.getId(), secondBooking.getId()),
+                        firstPage.stream().map(Booking::getId).collect(Collectors.toList())
+                ),
+                () -> assertEquals(
+                        List.of(thirdBooking.getId()),
+                        secondPage.stream().map(Booking::getId).collect(Collectors.toList())
+                )
+        );
+    }
+
+    @Test
+    void shouldPageBookingsWithSameStartWithoutGapsOrRepeats() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            ids.add(0, createBooking(start, start.plusDays(1), BookingStatus.WAITING).getId());
+        testEntityManager.flush();
+
+        Slice<Booking> firstPage = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(
+                booker.getId(), PageRequest.of(0, 2)
+        );
+        Booking lastOnPage = firstPage.getContent().get(1);
+        Slice<Booking> secondPage = bookingRepository.findAllByBookerIdAndStateAfter(
+                booker.getId(), BookingState.ALL, LocalDateTime.now(),
+                new SeekCursor(lastOnPage.getStart(), lastOnPage.getId()), 2
+        );
+
+        assertAll(
+                () -> assertEquals(ids.subList(0, 2), firstPage.map(Booking::getId).getContent()),
+                () -> assertTrue(firstPage.hasNext()),
+                () -> assertEquals(ids.subList(2, 4), secondPage.map(Booking::getId).getContent()),
+                () -> assertFalse(secondPage.hasNext())
+        );
+    }
+
+    @Test
+    void findAllByItemOwnerIdAndStateAfter() {
+        createBooking(
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.WAITING
+        );
+        Booking savedBooking = createBooking(
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), BookingStatus.REJECTED
+        );
+        testEntityManager.flush();
+
+        List<Booking> foundBookings = bookingRepository.findAllByItemOwnerIdAndStateAfter(
+                owner.getId(), BookingState.REJECTED, LocalDateTime.now(), null, 10
+        ).getContent();
+
+        assertAll(
+                () -> assertEquals(1, foundBookings.size()),
+                () -> assertEquals(savedBooking.getId(), foundBookings.get(0).getId())
+        );
+    }
+
     private Booking createBooking(LocalDateTime start, LocalDateTime end, BookingStatus bookingStatus) {
         Booking booking = Booking.builder()
                 .booker(booker)
@@ -1,22 +1,36 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.exception.AlreadyReservedItemException;
 import ru.practicum.shareit.booking.exception.BadBookingStatusForApproveException;
+import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.UserNotBookingCreatorOrItemOwnerException;
 import ru.practicum.shareit.booking.exception.UserNotItemOwnerInBookingException;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResult;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -33,9 +47,12 @@ class BookingServiceImplTest {
     private final BookingRepository mockBookingRepository = mock(BookingRepository.class);
     private final ItemRepository mockItemRepository = mock(ItemRepository.class);
     private final UserRepository mockUserRepository = mock(UserRepository.class);
+    private final BookingIntervalIndex mockBookingIntervalIndex = mock(BookingIntervalIndex.class);
+    private final ApplicationEventPublisher mockEventPublisher = mock(ApplicationEventPublisher.class);
 
     private final BookingService bookingService = new BookingServiceImpl(
-            mockBookingRepository, mockItemRepository, mockUserRepository
+            mockBookingRepository, mockItemRepository, disabledUserCache(mockUserRepository),
+            mockBookingIntervalIndex, mockEventPublisher, false
     );
 
     private final EasyRandom generator = new EasyRandom();
@@ -54,8 +71,8 @@ class BookingServiceImplTest {
         Item item = generator.nextObject(Item.class);
         when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
 
-        when(mockBookingRepository.findAllByItemIdAndStartBetweenAndEndBetween(
-                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class))
+        when(mockBookingRepository.findAllOverlappingByItemIdAndStatusNotIn(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList())
         ).thenReturn(Collections.emptyList());
 
         Booking booking = generator.nextObject(Booking.class);
@@ -66,6 +83,189 @@ class BookingServiceImplTest {
         assertEquals(booking, addedBooking);
     }
 
+    @Test
+    void shouldThrowAlreadyReservedItemExceptionWhenIntervalIndexHasOverlap() {
+        when(mockUserRepository.findById(anyInt())).thenReturn(Optional.of(user));
+
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+
+        when(mockBookingIntervalIndex.isEnabled()).thenReturn(true);
+        when(mockBookingIntervalIndex.hasOverlap(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        Booking booking = Booking.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        assertThrows(
+                AlreadyReservedItemException.class,
+                () -> bookingService.addBooking(booking, user.getId(), item.getId())
+        );
+        assertAll(
+                () -> verify(mockBookingRepository, times(0)).findAllOverlappingByItemIdAndStatusNotIn(
+                        anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList()
+                ),
+                () -> verify(mockBookingRepository, times(0)).save(any(Booking.class))
+        );
+    }
+
+    @Test
+    void shouldCheckDatabaseWhenIntervalIndexHasNoOverlap() {
+        when(mockUserRepository.findById(anyInt())).thenReturn(Optional.of(user));
+
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+
+        when(mockBookingIntervalIndex.isEnabled()).thenReturn(true);
+        when(mockBookingIntervalIndex.hasOverlap(anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(false);
+        when(mockBookingRepository.findAllOverlappingByItemIdAndStatusNotIn(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList())
+        ).thenReturn(List.of(generator.nextObject(Booking.class)));
+
+        Booking booking = Booking.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        assertThrows(
+                AlreadyReservedItemException.class,
+                () -> bookingService.addBooking(booking, user.getId(), item.getId())
+        );
+        verify(mockBookingRepository, times(0)).save(any(Booking.class));
+    }
+
+    @Test
+    void shouldThrowAlreadyReservedItemExceptionWhenExclusionConstraintViolated() {
+        BookingService constrainedBookingService = new BookingServiceImpl(
+                mockBookingRepository, mockItemRepository, disabledUserCache(mockUserRepository),
+                mockBookingIntervalIndex, mockEventPublisher, true
+        );
+        when(mockUserRepository.findById(anyInt())).thenReturn(Optional.of(user));
+
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+
+        when(mockBookingRepository.save(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")
+        ));
+
+        Booking booking = Booking.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        assertThrows(
+                AlreadyReservedItemException.class,
+                () -> constrainedBookingService.addBooking(booking, user.getId(), item.getId())
+        );
+        verify(mockBookingRepository, times(0)).findAllOverlappingByItemIdAndStatusNotIn(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList()
+        );
+    }
+
+    @Test
+    void addBookings() {
+        when(mockUserRepository.findById(anyInt())).thenReturn(Optional.of(user));
+
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        when(mockItemRepository.findAllByIdInOrderByIdAsc(anySet())).thenReturn(List.of(item));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking reservedBooking = Booking.builder()
+                .item(item).start(start.plusDays(10)).end(start.plusDays(11)).build();
+        when(mockBookingRepository.findAllOverlappingByItemIdInAndStatusNotIn(
+                anySet(), any(LocalDateTime.class), any(LocalDateTime.class), anyList())
+        ).thenReturn(List.of(reservedBooking));
+
+        List<Booking> bookings = List.of(
+                Booking.builder().item(Item.builder().id(item.getId()).build())
+                        .start(start).end(start.plusDays(1)).build(),
+                Booking.builder().item(Item.builder().id(item.getId()).build())
+                        .start(start.plusHours(12)).end(start.plusDays(2)).build(),
+                Booking.builder().item(Item.builder().id(item.getId()).build())
+                        .start(start.plusDays(9)).end(start.plusDays(10)).build(),
+                Booking.builder().item(Item.builder().id(item.getId() + 1).build())
+                        .start(start).end(start.plusDays(1)).build()
+        );
+
+        List<BookingBatchResult> results = bookingService.addBookings(bookings, user.getId());
+
+        assertAll(
+                () -> assertEquals(4, results.size()),
+                () -> assertTrue(results.get(0).isSuccess()),
+                () -> assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus()),
+                () -> assertEquals(user, results.get(0).getBooking().getBooker()),
+                () -> assertFalse(results.get(1).isSuccess()),
+                () -> assertFalse(results.get(2).isSuccess()),
+                () -> assertFalse(results.get(3).isSuccess()),
+                () -> verify(mockBookingRepository, times(1)).insertAll(List.of(bookings.get(0))),
+                () -> verify(mockEventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class))
+        );
+    }
+
+    @Test
+    void approveBookings() {
+        Item item = generator.nextObject(Item.class);
+        item.setOwner(user);
+        Item foreignItem = generator.nextObject(Item.class);
+
+        Booking waitingBooking = Booking.builder().id(1).item(item).status(BookingStatus.WAITING).build();
+        Booking approvedBooking = Booking.builder().id(2).item(item).status(BookingStatus.APPROVED).build();
+        Booking foreignBooking = Booking.builder().id(3).item(foreignItem).status(BookingStatus.WAITING).build();
+        when(mockBookingRepository.findAllByIdInOrderByIdAsc(anyCollection()))
+                .thenReturn(List.of(waitingBooking, approvedBooking, foreignBooking));
+        when(mockBookingRepository.updateStatusOfWaitingByIdInAndItemOwnerId(
+                List.of(1), user.getId(), BookingStatus.APPROVED
+        )).thenReturn(1);
+
+        List<BookingBatchResult> results = bookingService.approveBookings(List.of(1, 2, 3, 4), user.getId(), true);
+
+        assertAll(
+                () -> assertEquals(4, results.size()),
+                () -> assertTrue(results.get(0).isSuccess()),
+                () -> assertEquals(BookingStatus.APPROVED, results.get(0).getBooking().getStatus()),
+                () -> assertFalse(results.get(1).isSuccess()),
+                () -> assertFalse(results.get(2).isSuccess()),
+                () -> assertFalse(results.get(3).isSuccess()),
+                () -> verify(mockBookingRepository, times(1)).updateStatusOfWaitingByIdInAndItemOwnerId(
+                        List.of(1), user.getId(), BookingStatus.APPROVED
+                ),
+                () -> verify(mockBookingRepository, times(0)).save(any(Booking.class)),
+                () -> verify(mockEventPublisher, times(1)).publishEvent(any(BookingChangedEvent.class))
+        );
+    }
+
+    @Test
+    void shouldThrowIllegalStateExceptionWhenApproveBookingsUpdatesFewerRows() {
+        Item item = generator.nextObject(Item.class);
+        item.setOwner(user);
+        Booking waitingBooking = Booking.builder().id(1).item(item).status(BookingStatus.WAITING).build();
+        when(mockBookingRepository.findAllByIdInOrderByIdAsc(anyCollection()))
+                .thenReturn(List.of(waitingBooking));
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> bookingService.approveBookings(List.of(1), user.getId(), true)
+        );
+        verify(mockEventPublisher, times(0)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenAddEmptyBookingBatch() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.addBookings(Collections.emptyList(), user.getId())
+        );
+    }
+
     @Test
     void shouldThrowUserNotFoundExceptionWhenAddBookingWithBadUserId() {
         User user = generator.nextObject(User.class);
@@ -84,8 +284,8 @@ class BookingServiceImplTest {
                 ),
                 () -> verify(mockItemRepository, times(0)).findById(anyInt()),
                 () -> verify(mockBookingRepository, times(0))
-                        .findAllByItemIdAndStartBetweenAndEndBetween(
-                                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class)
+                        .findAllOverlappingByItemIdAndStatusNotIn(
+                                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), anyList()
                         ),
                 () -> verify(mockBookingRepository, times(0)).save(any(Booking.class))
         );
@@ -173,182 +373,222 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsOfUserByCurrentState() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        when(mockBookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+        when(mockBookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
                 anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
                 user.getId(), BookingState.CURRENT, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserByFutureState() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        when(mockBookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
+        when(mockBookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(
                 anyInt(), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
                 user.getId(), BookingState.FUTURE, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserByPastState() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        when(mockBookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(
+        when(mockBookingRepository.findAllByBookerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
                 anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
                 user.getId(), BookingState.PAST, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserByWaitingState() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        when(mockBookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
+        when(mockBookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(
                 anyInt(), eq(BookingStatus.WAITING), any(Pageable.class)
-        )).thenReturn(bookings);
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
                 user.getId(), BookingState.WAITING, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserByRejectedState() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        when(mockBookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
+        when(mockBookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(
                 anyInt(), eq(BookingStatus.REJECTED), any(Pageable.class)
-        )).thenReturn(bookings);
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
                 user.getId(), BookingState.REJECTED, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserByAllState() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        when(mockBookingRepository.findAllByBookerIdOrderByStartDesc(
+        when(mockBookingRepository.findAllByBookerIdOrderByStartDescIdDesc(
                 anyInt(), any(Pageable.class)
-        )).thenReturn(bookings);
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
                 user.getId(), BookingState.ALL, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserItemsByCurrentState() {
         List<Booking> bookings = prepareDataForGetAllBookingsOfUserItems();
-        when(mockBookingRepository.findAllByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
-                anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
+        when(mockBookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
                 user.getId(), BookingState.CURRENT, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserItemsByFutureState() {
         List<Booking> bookings = prepareDataForGetAllBookingsOfUserItems();
-        when(mockBookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(
-                anyList(), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
+        when(mockBookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
+                anyInt(), any(LocalDateTime.class), any(Pageable.class)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
                 user.getId(), BookingState.FUTURE, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserItemsByPastState() {
         List<Booking> bookings = prepareDataForGetAllBookingsOfUserItems();
-        when(mockBookingRepository.findAllByItemIdInAndStartBeforeAndEndBeforeOrderByStartDesc(
-                anyList(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
-        )).thenReturn(bookings);
+        when(mockBookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDescIdDesc(
+                anyInt(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
                 user.getId(), BookingState.PAST, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserItemsByWaitingState() {
         List<Booking> bookings = prepareDataForGetAllBookingsOfUserItems();
-        when(mockBookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(
-                anyList(), eq(BookingStatus.WAITING), any(Pageable.class)
-        )).thenReturn(bookings);
+        when(mockBookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                anyInt(), eq(BookingStatus.WAITING), any(Pageable.class)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
                 user.getId(), BookingState.WAITING, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserItemsByRejectedState() {
         List<Booking> bookings = prepareDataForGetAllBookingsOfUserItems();
-        when(mockBookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(
-                anyList(), eq(BookingStatus.REJECTED), any(Pageable.class)
-        )).thenReturn(bookings);
+        when(mockBookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                anyInt(), eq(BookingStatus.REJECTED), any(Pageable.class)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
                 user.getId(), BookingState.REJECTED, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
     @Test
     void getAllBookingsOfUserItemsByAllState() {
         List<Booking> bookings = prepareDataForGetAllBookingsOfUserItems();
-        when(mockBookingRepository.findAllByItemIdInOrderByStartDesc(
-                anyList(), any(Pageable.class)
-        )).thenReturn(bookings);
+        when(mockBookingRepository.findAllByItemOwnerIdOrderByStartDescIdDesc(
+                anyInt(), any(Pageable.class)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        List<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
                 user.getId(), BookingState.ALL, 0, 10
         );
 
-        assertEquals(bookings, foundBookings);
+        assertEquals(bookings, foundBookings.getContent());
     }
 
-    private List<Booking> prepareDataForGetAllBookingsOfUserItems() {
+    @Test
+    void getAllBookingsOfUserByStateAfterCursor() {
+        List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
+        SeekCursor after = new SeekCursor(LocalDateTime.now(), generator.nextInt());
+        when(mockBookingRepository.findAllByBookerIdAndStateAfter(
+                anyInt(), eq(BookingState.PAST), any(LocalDateTime.class), eq(after), eq(10)
+        )).thenReturn(new SliceImpl<>(bookings));
+
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserByState(
+                user.getId(), BookingState.PAST, after, 10
+        );
+
+        assertEquals(bookings, foundBookings.getContent());
+    }
+
+    @Test
+    void getAllBookingsOfUserItemsAfterCursor() {
         List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
-        List<Item> items = generator.objects(Item.class, 10).collect(Collectors.toList());
+        when(mockBookingRepository.findAllByItemOwnerIdAndStateAfter(
+                anyInt(), eq(BookingState.ALL), any(LocalDateTime.class), isNull(), eq(10)
+        )).thenReturn(new SliceImpl<>(bookings));
 
-        for (int i = 0; i < bookings.size(); i++) {
-            items.get(i).setOwner(user);
-            bookings.get(i).setItem(items.get(i));
-        }
-        when(mockItemRepository.findByOwnerId(anyInt(), any(Pageable.class)))
-                .thenReturn(items);
+        Slice<Booking> foundBookings = bookingService.getAllBookingsOfUserItems(
+                user.getId(), BookingState.ALL, (SeekCursor) null, 10
+        );
+
+        assertEquals(bookings, foundBookings.getContent());
+    }
+
+    @Test
+    void shouldThrowBookingNotFoundExceptionWhenNoBookingsAfterCursor() {
+        when(mockBookingRepository.findAllByItemOwnerIdAndStateAfter(
+                anyInt(), any(BookingState.class), any(LocalDateTime.class), any(SeekCursor.class), anyInt()
+        )).thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        assertThrows(
+                BookingNotFoundException.class,
+                () -> bookingService.getAllBookingsOfUserItems(
+                        user.getId(), BookingState.ALL, new SeekCursor(LocalDateTime.now(), 1), 10
+                )
+        );
+    }
+
+    private List<Booking> prepareDataForGetAllBookingsOfUserItems() {
+        List<Booking> bookings = generator.objects(Booking.class, 10).collect(Collectors.toList());
+        bookings.forEach(booking -> booking.getItem().setOwner(user));
 
         return bookings;
     }
+
+    private static UserCache disabledUserCache(UserRepository userRepository) {
+        return new UserCache(userRepository, new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.sweeper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "shareit.booking.sweeper.enabled=true",
+        "shareit.booking.sweeper.interval=PT1H",
+        "shareit.booking.sweeper.batch-size=1",
+        "shareit.booking.sweeper.retention=7d"
+})
+@Transactional
+class BookingSweeperIT {
+
+    @Autowired
+    private BookingSweeper bookingSweeper;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final EasyRandom generator = new EasyRandom();
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = generator.nextObject(User.class);
+        owner.setId(0);
+        entityManager.persist(owner);
+
+        booker = generator.nextObject(User.class);
+        booker.setId(0);
+        entityManager.persist(booker);
+
+        item = Item.builder()
+                .name(generator.nextObject(String.class))
+                .description(generator.nextObject(String.class))
+                .available(true)
+                .owner(owner)
+                .build();
+        entityManager.persist(item);
+    }
+
+    @Test
+    void sweep() {
+        Booking staleBooking = createBooking(LocalDateTime.now().minusHours(1), BookingStatus.WAITING);
+        Booking secondStaleBooking = createBooking(LocalDateTime.now().minusHours(2), BookingStatus.WAITING);
+        Booking futureBooking = createBooking(LocalDateTime.now().plusHours(1), BookingStatus.WAITING);
+        Booking oldRejectedBooking = createBooking(LocalDateTime.now().minusDays(10), BookingStatus.REJECTED);
+        Booking recentRejectedBooking = createBooking(LocalDateTime.now().minusDays(1), BookingStatus.REJECTED);
+        double canceledBefore = meterRegistry.counter("shareit.booking.sweeper.canceled").count();
+        entityManager.flush();
+
+        bookingSweeper.sweep();
+
+        assertAll(
+                () -> assertEquals(BookingStatus.CANCELED, getStatus(staleBooking)),
+                () -> assertEquals(BookingStatus.CANCELED, getStatus(secondStaleBooking)),
+                () -> assertEquals(BookingStatus.WAITING, getStatus(futureBooking)),
+                () -> assertTrue(bookingRepository.findById(oldRejectedBooking.getId()).isEmpty()),
+                () -> assertEquals(BookingStatus.REJECTED, getStatus(recentRejectedBooking)),
+                () -> assertEquals(
+                        canceledBefore + 2, meterRegistry.counter("shareit.booking.sweeper.canceled").count()
+                )
+        );
+    }
+
+    private Booking createBooking(LocalDateTime start, BookingStatus status) {
+        Booking booking = Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+        entityManager.persist(booking);
+
+        return booking;
+    }
+
+    private BookingStatus getStatus(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+}
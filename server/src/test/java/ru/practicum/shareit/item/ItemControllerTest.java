@@ -11,6 +11,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.item.dto.CommentDTO;
 import ru.practicum.shareit.item.dto.ItemDTO;
 import ru.practicum.shareit.item.model.Comment;
@@ -20,6 +21,7 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.auth.AuthConstant;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
@@ -27,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -134,7 +137,7 @@ class ItemControllerTest {
 
     @Test
     void getAvailableItemsByName() throws Exception {
-        when(itemService.getAvailableItemsByText(anyString(), anyInt(), anyInt()))
+        when(itemService.getAvailableItemsByText(anyString(), isNull(), isNull(), anyInt(), anyInt()))
                 .thenReturn(List.of(item));
 
         MvcResult result = mockMvc.perform(get("/items/search")
@@ -151,6 +154,33 @@ class ItemControllerTest {
         checkResult(item, responseItemDTO.get(0));
     }
 
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemService.getAvailability(anyInt(), anyInt(), eq(from), eq(from.plusDays(1))))
+                .thenReturn(List.of(new FreeInterval(from, from.plusHours(1))));
+
+        mockMvc.perform(get("/items/" + item.getId() + "/availability")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T00:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-01T01:00:00"));
+    }
+
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("дре", 10)).thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1)
+                        .param("prefix", "дре"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Дрель"))
+                .andExpect(jsonPath("$[1]").value("Дрель ударная"));
+    }
+
     @Test
     void addComment() throws Exception {
         Comment comment = generator.nextObject(Comment.class);
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingDetails;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailsCacheTest {
+    private static final int ITEM_ID = 1;
+    private static final int OWNER_ID = 10;
+    private static final int USER_ID = 20;
+
+    private final ItemDetailsCache itemDetailsCache = new ItemDetailsCache(
+            new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5)
+    );
+
+    @Test
+    void shouldReturnViewMatchingUser() {
+        ItemBookingDetails publicView = details(null);
+        ItemBookingDetails ownerView = details(booking(LocalDateTime.now().plusDays(1)));
+
+        itemDetailsCache.put(publicView, USER_ID, itemDetailsCache.stamp(ITEM_ID));
+        itemDetailsCache.put(ownerView, OWNER_ID, itemDetailsCache.stamp(ITEM_ID));
+
+        assertAll(
+                () -> assertSameView(publicView, itemDetailsCache.get(ITEM_ID, USER_ID)),
+                () -> assertSameView(publicView, itemDetailsCache.get(ITEM_ID, USER_ID + 1)),
+                () -> assertSameView(ownerView, itemDetailsCache.get(ITEM_ID, OWNER_ID))
+        );
+    }
+
+    @Test
+    void shouldKeepCachedViewWhenReturnedCopyOrOriginalChanged() {
+        ItemBookingDetails ownerView = details(booking(LocalDateTime.now().plusDays(1)));
+        itemDetailsCache.put(ownerView, OWNER_ID, itemDetailsCache.stamp(ITEM_ID));
+
+        ownerView.getItem().setName("Пила");
+        ItemBookingDetails cachedView = itemDetailsCache.get(ITEM_ID, OWNER_ID);
+        cachedView.getItem().setName("Молоток");
+        cachedView.setNextBooking(null);
+
+        ItemBookingDetails otherCachedView = itemDetailsCache.get(ITEM_ID, OWNER_ID);
+        assertAll(
+                () -> assertNotSame(cachedView, otherCachedView),
+                () -> assertEquals("Дрель", otherCachedView.getItem().getName()),
+                () -> assertNotNull(otherCachedView.getNextBooking())
+        );
+    }
+
+    @Test
+    void shouldNotCacheOwnerViewAfterNextBookingStarted() {
+        itemDetailsCache.put(details(booking(LocalDateTime.now().minusSeconds(1))), OWNER_ID, itemDetailsCache.stamp(ITEM_ID));
+
+        assertNull(itemDetailsCache.get(ITEM_ID, OWNER_ID));
+    }
+
+    @Test
+    void shouldInvalidateOnlyOwnerViewAfterBookingChanged() {
+        itemDetailsCache.put(details(null), USER_ID, itemDetailsCache.stamp(ITEM_ID));
+        itemDetailsCache.put(details(null), OWNER_ID, itemDetailsCache.stamp(ITEM_ID));
+
+        itemDetailsCache.onBookingChanged(new BookingChangedEvent(
+                1, ITEM_ID, LocalDateTime.now(), LocalDateTime.now().plusDays(1), BookingStatus.WAITING
+        ));
+
+        assertAll(
+                () -> assertNotNull(itemDetailsCache.get(ITEM_ID, USER_ID)),
+                () -> assertNull(itemDetailsCache.get(ITEM_ID, OWNER_ID))
+        );
+    }
+
+    @Test
+    void shouldInvalidateBothViewsAfterItemChangedOrCommentAdded() {
+        itemDetailsCache.put(details(null), USER_ID, itemDetailsCache.stamp(ITEM_ID));
+        itemDetailsCache.put(details(null), OWNER_ID, itemDetailsCache.stamp(ITEM_ID));
+        itemDetailsCache.onItemChanged(new ItemChangedEvent(ITEM_ID, "Дрель", "Простая дрель", true));
+
+        itemDetailsCache.put(details(null), USER_ID, itemDetailsCache.stamp(ITEM_ID));
+        itemDetailsCache.onCommentAdded(new CommentAddedEvent(1, ITEM_ID));
+
+        assertAll(
+                () -> assertNull(itemDetailsCache.get(ITEM_ID, USER_ID)),
+                () -> assertNull(itemDetailsCache.get(ITEM_ID, OWNER_ID))
+        );
+    }
+
+    @Test
+    void shouldNotCacheViewLoadedBeforeInvalidation() {
+        long stamp = itemDetailsCache.stamp(ITEM_ID);
+        itemDetailsCache.onItemChanged(new ItemChangedEvent(ITEM_ID, "Дрель", "Простая дрель", true));
+
+        itemDetailsCache.put(details(null), USER_ID, stamp);
+
+        assertNull(itemDetailsCache.get(ITEM_ID, USER_ID));
+    }
+
+    @Test
+    void shouldCacheOtherItemsLoadedBeforeInvalidation() {
+        long stamp = itemDetailsCache.stamp(ITEM_ID);
+        itemDetailsCache.onItemChanged(new ItemChangedEvent(ITEM_ID + 1, "Пила", "Ручная пила", true));
+
+        ItemBookingDetails publicView = details(null);
+        itemDetailsCache.put(publicView, USER_ID, stamp);
+
+        assertSameView(publicView, itemDetailsCache.get(ITEM_ID, USER_ID));
+    }
+
+    @Test
+    void shouldInvalidateViewsMentioningChangedUser() {
+        User author = new User(USER_ID + 1, "Иван", "ivan@mail.ru");
+        Comment comment = new Comment();
+        comment.setText("Отличная дрель");
+        comment.setAuthor(author);
+        ItemBookingDetails commentedView = details(null);
+        commentedView.setComments(List.of(comment));
+        itemDetailsCache.put(commentedView, USER_ID, itemDetailsCache.stamp(ITEM_ID));
+        itemDetailsCache.put(details(null), OWNER_ID, itemDetailsCache.stamp(ITEM_ID));
+
+        itemDetailsCache.onUserChanged(UserChangedEvent.of(author.getId()));
+
+        assertAll(
+                () -> assertNull(itemDetailsCache.get(ITEM_ID, USER_ID)),
+                () -> assertNotNull(itemDetailsCache.get(ITEM_ID, OWNER_ID))
+        );
+    }
+
+    private static void assertSameView(ItemBookingDetails expected, ItemBookingDetails actual) {
+        assertEquals(ItemMapper.toItemDTO(expected), ItemMapper.toItemDTO(actual));
+    }
+
+    private static ItemBookingDetails details(Booking nextBooking) {
+        User owner = new User();
+        owner.setId(OWNER_ID);
+        Item item = new Item(ITEM_ID, "Дрель", "Простая дрель", true, null);
+        item.setOwner(owner);
+        if (nextBooking != null)
+            nextBooking.setItem(item);
+
+        return new ItemBookingDetails(item, null, nextBooking, Collections.emptyList());
+    }
+
+    private static Booking booking(LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setBooker(new User(USER_ID, "Арендатор", "booker@mail.ru"));
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        return booking;
+    }
+}
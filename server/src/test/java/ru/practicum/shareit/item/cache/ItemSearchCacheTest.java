@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDTO;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchMode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemSearchCache itemSearchCache = cache(ItemSearchMode.LIKE);
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @Test
+    void shouldReturnCachedPageForSameNormalizedText() {
+        List<Item> first = itemSearchCache.get("Дрель", 0, 10, search(item(1, "Дрель")));
+        List<Item> second = itemSearchCache.get("дрель", 0, 10, search(item(2, "Дрель")));
+        itemSearchCache.get("дрель", 10, 10, search());
+
+        assertAll(
+                () -> assertEquals(toItemDTOs(first), toItemDTOs(second)),
+                () -> assertEquals(2, searches.get()),
+                () -> assertEquals(1, meterRegistry.get("cache.gets")
+                        .tag("cache", "items.search").tag("result", "hit").functionCounter().count()),
+                () -> assertEquals(2, meterRegistry.get("cache.gets")
+                        .tag("cache", "items.search").tag("result", "miss").functionCounter().count())
+        );
+    }
+
+    @Test
+    void shouldInvalidateOnlyQueriesSharingTextWithChangedItem() {
+        itemSearchCache.get("дрель", 0, 10, search());
+        itemSearchCache.get("отвертка", 0, 10, search());
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(1, "Новая дрель", "Аккумуляторная", true));
+        itemSearchCache.get("дрель", 0, 10, search());
+        itemSearchCache.get("отвертка", 0, 10, search());
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void shouldInvalidateQueriesMatchingPreviousTextOrContainingChangedItem() {
+        itemSearchCache.get("дрель", 0, 10, search());
+        itemSearchCache.get("пила", 0, 10, search(item(7, "Пила")));
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(
+                3, "Молоток", "Стальной", true, "Дрель", "Простая", null, null
+        ));
+        itemSearchCache.onItemChanged(new ItemChangedEvent(7, "Ножовка", "По дереву", false));
+        itemSearchCache.get("дрель", 0, 10, search());
+        itemSearchCache.get("пила", 0, 10, search());
+
+        assertEquals(4, searches.get());
+    }
+
+    @Test
+    void shouldKeepQueryWhenChangedItemCoversOnlyPartOfIt() {
+        itemSearchCache.get("дрель", 0, 10, search());
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(1, "Модель", "Модель", true));
+        itemSearchCache.get("дрель", 0, 10, search());
+
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    void shouldInvalidateFuzzyQueryOnlyWhenEveryWordMayMatch() {
+        ItemSearchCache indexCache = cache(ItemSearchMode.INDEX);
+        indexCache.get("дрель makita", 0, 10, search());
+        indexCache.get("дрел", 0, 10, search());
+
+        indexCache.onItemChanged(new ItemChangedEvent(1, "Дрель", "Bosch", true));
+        indexCache.get("дрель makita", 0, 10, search());
+        indexCache.get("дрел", 0, 10, search());
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void shouldInvalidateFullTextQueryWhenAnyWordMayMatch() {
+        ItemSearchCache fullTextCache = cache(ItemSearchMode.FULL_TEXT);
+        fullTextCache.get("дрель makita", 0, 10, search());
+
+        fullTextCache.onItemChanged(new ItemChangedEvent(1, "Дрели", "Bosch", true));
+        fullTextCache.get("дрель makita", 0, 10, search());
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void shouldKeepCachedPageWhenReturnedItemChanged() {
+        Item original = item(1, "Дрель");
+        itemSearchCache.get("дрель", 0, 10, search(original)).get(0).setName("Пила");
+        original.setDescription("Пила");
+
+        List<Item> cached = itemSearchCache.get("дрель", 0, 10, search());
+
+        assertAll(
+                () -> assertNotSame(original, cached.get(0)),
+                () -> assertEquals("Дрель", cached.get(0).getName()),
+                () -> assertEquals("Дрель", cached.get(0).getDescription()),
+                () -> assertEquals(1, searches.get())
+        );
+    }
+
+    @Test
+    void shouldNotKeepPageFoundBeforeConcurrentInvalidation() {
+        itemSearchCache.get("дрель", 0, 10, () -> {
+            searches.incrementAndGet();
+            itemSearchCache.onItemChanged(new ItemChangedEvent(1, "Дрель", "Дрель", true));
+            return List.of();
+        });
+        itemSearchCache.get("дрель", 0, 10, search(item(1, "Дрель")));
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void shouldSearchEveryTimeWhenDisabled() {
+        ItemSearchCache disabledCache = new ItemSearchCache(
+                new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(1), ItemSearchMode.LIKE, 2
+        );
+
+        disabledCache.get("дрель", 0, 10, search());
+        disabledCache.get("дрель", 0, 10, search());
+
+        assertEquals(2, searches.get());
+    }
+
+    private ItemSearchCache cache(ItemSearchMode searchMode) {
+        return new ItemSearchCache(meterRegistry, true, 100, Duration.ofMinutes(1), searchMode, 2);
+    }
+
+    private Supplier<List<Item>> search(Item... items) {
+        return () -> {
+            searches.incrementAndGet();
+            return List.of(items);
+        };
+    }
+
+    private static Item item(int id, String name) {
+        return new Item(id, name, name, true, null);
+    }
+
+    private static List<ItemDTO> toItemDTOs(List<Item> items) {
+        return items.stream().map(ItemMapper::toItemDTO).collect(Collectors.toList());
+    }
+}
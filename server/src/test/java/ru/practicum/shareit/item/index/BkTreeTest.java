@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BkTreeTest {
+
+    @Test
+    void search() {
+        BkTree tree = new BkTree();
+        tree.add("дрель");
+        tree.add("дрели");
+        tree.add("пила");
+        tree.add("отвертка");
+        tree.add("дрель");
+
+        assertAll(
+                () -> assertEquals(4, tree.size()),
+                () -> assertEquals(Map.of("дрель", 1, "дрели", 1), tree.search("дрел", 2)),
+                () -> assertEquals(Map.of("дрель", 0, "дрели", 1), tree.search("дрель", 1)),
+                () -> assertEquals(Map.of("отвертка", 1), tree.search("отвёртка", 1)),
+                () -> assertEquals(Map.of(), tree.search("молоток", 2))
+        );
+    }
+
+    @Test
+    void distance() {
+        assertAll(
+                () -> assertEquals(0, BkTree.distance("пила", "пила")),
+                () -> assertEquals(1, BkTree.distance("пила", "пилла")),
+                () -> assertEquals(2, BkTree.distance("дрель", "дрли")),
+                () -> assertEquals(4, BkTree.distance("", "пила"))
+        );
+    }
+}
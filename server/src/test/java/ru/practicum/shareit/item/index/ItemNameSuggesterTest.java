@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemNameSuggesterTest {
+
+    private final ItemRepository mockItemRepository = mock(ItemRepository.class);
+
+    private final ItemNameSuggester itemNameSuggester = new ItemNameSuggester(mockItemRepository, true);
+
+    @Test
+    void suggest() {
+        when(mockItemRepository.findAllAfterId(eq(0), any(Pageable.class))).thenReturn(List.of(
+                new Item(1, "Дрель", "Простая дрель", true, null),
+                new Item(2, "Дрель ударная", "Мощная", true, null),
+                new Item(3, "Дрезина", "Ручная", false, null),
+                new Item(4, "дрель", "Еще одна дрель", true, null),
+                new Item(5, "Пила", "Ручная пила", true, null)
+        ));
+        when(mockItemRepository.findAllAfterId(eq(5), any(Pageable.class))).thenReturn(Collections.emptyList());
+        itemNameSuggester.onApplicationReady();
+
+        assertAll(
+                () -> assertEquals(List.of("Дрель", "Дрель ударная"), itemNameSuggester.suggest("ДРЕ", 10)),
+                () -> assertEquals(List.of("Дрель"), itemNameSuggester.suggest("дре", 1)),
+                () -> assertEquals(List.of("Пила"), itemNameSuggester.suggest("п", 10)),
+                () -> assertEquals(Collections.emptyList(), itemNameSuggester.suggest("молоток", 10))
+        );
+    }
+
+    @Test
+    void onItemChanged() {
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(1, "Дрель", "Простая", true));
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(2, "Дрель", "Ударная", true));
+
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(1, "Дрель", "Простая", false));
+        assertEquals(List.of("Дрель"), itemNameSuggester.suggest("др", 10));
+
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(2, "Перфоратор", "Ударный", true));
+        assertAll(
+                () -> assertEquals(Collections.emptyList(), itemNameSuggester.suggest("др", 10)),
+                () -> assertEquals(List.of("Перфоратор"), itemNameSuggester.suggest("перф", 10))
+        );
+    }
+
+    @Test
+    void shouldShowNameOfRemainingItemAfterFirstItemRenamed() {
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(1, "ДРЕЛЬ", "", true));
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(2, "Дрель", "", true));
+        assertEquals(List.of("ДРЕЛЬ"), itemNameSuggester.suggest("др", 10));
+
+        itemNameSuggester.onItemChanged(new ItemChangedEvent(1, "Перфоратор", "", true));
+
+        assertAll(
+                () -> assertEquals(List.of("Дрель"), itemNameSuggester.suggest("др", 10)),
+                () -> assertEquals(List.of("Перфоратор"), itemNameSuggester.suggest("пе", 10))
+        );
+    }
+
+    @Test
+    void shouldReplayEventsReceivedDuringReload() {
+        when(mockItemRepository.findAllAfterId(eq(0), any(Pageable.class))).thenAnswer(invocation -> {
+            itemNameSuggester.onItemChanged(new ItemChangedEvent(1, "Перфоратор", "", true));
+            return List.of(new Item(1, "Дрель", "Простая дрель", true, null));
+        });
+
+        itemNameSuggester.reload();
+
+        assertAll(
+                () -> assertEquals(Collections.emptyList(), itemNameSuggester.suggest("др", 10)),
+                () -> assertEquals(List.of("Перфоратор"), itemNameSuggester.suggest("пе", 10))
+        );
+    }
+}
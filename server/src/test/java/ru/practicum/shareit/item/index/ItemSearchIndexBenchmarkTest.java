@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Задержка поиска по индексу на синтетическом каталоге.
+ * Запуск: mvn test -Dtest=ItemSearchIndexBenchmarkTest -Dbenchmark=true [-Dbenchmark.items=1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class ItemSearchIndexBenchmarkTest {
+    private static final double MAX_P99_MILLIS = 100;
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final int QUERIES = 2_000;
+    private static final String ALPHABET = "абвгдежзиклмнопрстуфхцчшщэюя";
+
+    private final Random random = new Random(42);
+    private final String[] vocabulary = new String[VOCABULARY_SIZE];
+
+    @Test
+    void searchLatency() {
+        int itemsCount = Integer.getInteger("benchmark.items", 1_000_000);
+        for (int i = 0; i < VOCABULARY_SIZE; i++)
+            vocabulary[i] = randomWord();
+
+        ItemRepository mockItemRepository = mock(ItemRepository.class);
+        when(mockItemRepository.findAllAfterId(anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            int batchSize = invocation.<Pageable>getArgument(1).getPageSize();
+            List<Item> batch = new ArrayList<>();
+            for (int id = afterId + 1; id <= Math.min(itemsCount, afterId + batchSize); id++)
+                batch.add(new Item(id, words(2), words(6), id % 10 != 0, null));
+            return batch;
+        });
+
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(mockItemRepository, ItemSearchMode.INDEX, 2);
+        long buildStartedAt = System.nanoTime();
+        ItemSearchIndex.Stats stats = itemSearchIndex.rebuild();
+        long buildMillis = (System.nanoTime() - buildStartedAt) / 1_000_000;
+
+        long[] exactNanos = measure(itemSearchIndex, false);
+        long[] fuzzyNanos = measure(itemSearchIndex, true);
+
+        log.info("items={} build={}ms {}", itemsCount, buildMillis, stats);
+        log.info("exact: p50={}ms p99={}ms", percentile(exactNanos, 50), percentile(exactNanos, 99));
+        log.info("fuzzy: p50={}ms p99={}ms", percentile(fuzzyNanos, 50), percentile(fuzzyNanos, 99));
+        assertAll(
+                () -> assertEquals(itemsCount, stats.getItems()),
+                () -> assertTrue(percentile(exactNanos, 99) < MAX_P99_MILLIS),
+                () -> assertTrue(percentile(fuzzyNanos, 99) < MAX_P99_MILLIS)
+        );
+    }
+
+    private long[] measure(ItemSearchIndex itemSearchIndex, boolean withTypo) {
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = vocabulary[random.nextInt(VOCABULARY_SIZE)];
+            String query = withTypo ? word.substring(0, word.length() - 1) + "ъ" : word;
+
+            long startedAt = System.nanoTime();
+            itemSearchIndex.search(query, 0, 20);
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        int index = Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100);
+        return sortedNanos[index] / 1_000_000.0;
+    }
+
+    private String words(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0)
+                builder.append(' ');
+            builder.append(vocabulary[random.nextInt(VOCABULARY_SIZE)]);
+        }
+        return builder.toString();
+    }
+
+    private String randomWord() {
+        int length = 5 + random.nextInt(6);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        return builder.toString();
+    }
+}
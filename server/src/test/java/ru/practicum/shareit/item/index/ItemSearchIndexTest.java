@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+
+    private final ItemRepository mockItemRepository = mock(ItemRepository.class);
+
+    private final ItemSearchIndex itemSearchIndex = new ItemSearchIndex(mockItemRepository, ItemSearchMode.INDEX, 2);
+
+    @BeforeEach
+    void beforeEach() {
+        when(mockItemRepository.findAllAfterId(eq(0), any(Pageable.class))).thenReturn(List.of(
+                new Item(1, "Дрель", "Простая дрель", true, null),
+                new Item(2, "Отвертка", "Аккумуляторная отвертка", true, null),
+                new Item(3, "Дрель ударная", "Мощная", false, null),
+                new Item(4, "Шуруповерт", "Как дрель, только шуруповерт", true, null)
+        ));
+        when(mockItemRepository.findAllAfterId(eq(4), any(Pageable.class))).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void search() {
+        assertFalse(itemSearchIndex.supports("дрель"));
+
+        itemSearchIndex.rebuild();
+
+        assertAll(
+                () -> assertTrue(itemSearchIndex.supports("дрель")),
+                () -> assertFalse(itemSearchIndex.supports("др")),
+                () -> assertEquals(List.of(1, 4), itemSearchIndex.search("ДРЕЛ", 0, 10)),
+                () -> assertEquals(List.of(4), itemSearchIndex.search("дрель", 1, 10)),
+                () -> assertEquals(List.of(1), itemSearchIndex.search("дрель", 0, 1)),
+                () -> assertEquals(List.of(2), itemSearchIndex.search("ккумулятор", 0, 10)),
+                () -> assertTrue(itemSearchIndex.search("пила", 0, 10).isEmpty()),
+                () -> assertEquals(4, itemSearchIndex.getStats().getItems())
+        );
+    }
+
+    @Test
+    void onItemChanged() {
+        itemSearchIndex.rebuild();
+
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(3, "Дрель ударная", "Мощная", true));
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(1, "Пила", "Ручная пила", true));
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(5, "Дрель-миксер", "Для строительных смесей", true));
+
+        assertAll(
+                () -> assertEquals(List.of(3, 4, 5), itemSearchIndex.search("дрель", 0, 10)),
+                () -> assertEquals(List.of(1), itemSearchIndex.search("пила", 0, 10)),
+                () -> assertEquals(5, itemSearchIndex.getStats().getItems())
+        );
+    }
+
+    @Test
+    void shouldPickUpChangesFromOtherNodesOnScheduledRebuild() {
+        itemSearchIndex.scheduledRebuild();
+        assertFalse(itemSearchIndex.supports("дрель"));
+
+        itemSearchIndex.rebuild();
+        when(mockItemRepository.findAllAfterId(eq(0), any(Pageable.class))).thenReturn(List.of(
+                new Item(1, "Пила", "Ручная пила", true, null)
+        ));
+        when(mockItemRepository.findAllAfterId(eq(1), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        itemSearchIndex.scheduledRebuild();
+
+        assertAll(
+                () -> assertEquals(List.of(1), itemSearchIndex.search("пила", 0, 10)),
+                () -> assertTrue(itemSearchIndex.search("дрель", 0, 10).isEmpty()),
+                () -> assertEquals(1, itemSearchIndex.getStats().getItems())
+        );
+    }
+
+    @Test
+    void shouldCompactVocabularyAfterWordsDisappear() {
+        itemSearchIndex.rebuild();
+        int liveWords = itemSearchIndex.getStats().getWords();
+
+        for (int i = 0; i < 20; i++)
+            itemSearchIndex.onItemChanged(new ItemChangedEvent(5, "Пила" + i, "Ручная", true));
+
+        assertAll(
+                () -> assertEquals(liveWords + 2, itemSearchIndex.getStats().getWords()),
+                () -> assertTrue(itemSearchIndex.getStats().getVocabulary() <= 2 * (liveWords + 2)),
+                () -> assertEquals(List.of(5), itemSearchIndex.search("пила19", 0, 10)),
+                () -> assertEquals(List.of(5), itemSearchIndex.search("пилаа19", 0, 10))
+        );
+    }
+
+    @Test
+    void shouldPageFuzzyMatchesAfterExactMatches() {
+        itemSearchIndex.rebuild();
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(5, "Дрели", "Набор", true));
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(6, "Дрелл", "Набор", true));
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(7, "Дрелли", "Набор", true));
+
+        assertAll(
+                () -> assertEquals(List.of(1, 4, 5, 6), itemSearchIndex.search("дрель", 0, 10)),
+                () -> assertEquals(List.of(5), itemSearchIndex.search("дрель", 2, 1)),
+                () -> assertEquals(List.of(6), itemSearchIndex.search("дрель", 3, 1)),
+                () -> assertEquals(List.of(7, 5, 6), itemSearchIndex.search("дрелли", 0, 10)),
+                () -> assertEquals(List.of(6), itemSearchIndex.search("дрелли", 2, 1))
+        );
+    }
+
+    @Test
+    void shouldFindItemsWithTyposAfterExactMatches() {
+        itemSearchIndex.rebuild();
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(5, "Дрели", "Набор", true));
+
+        assertAll(
+                () -> assertEquals(List.of(2), itemSearchIndex.search("отвёрткаа", 0, 10)),
+                () -> assertEquals(List.of(1, 4, 5), itemSearchIndex.search("дрелл", 0, 10)),
+                () -> assertEquals(List.of(4), itemSearchIndex.search("шуруповерт дрелл", 0, 10)),
+                () -> assertEquals(List.of(1, 4, 5), itemSearchIndex.search("дрель", 0, 10)),
+                () -> assertEquals(List.of(5), itemSearchIndex.search("дрель", 2, 10)),
+                () -> assertEquals(List.of(4), itemSearchIndex.search("дрель", 1, 1)),
+                () -> assertTrue(itemSearchIndex.search("мощьная", 0, 10).isEmpty())
+        );
+    }
+
+    @Test
+    void shouldRejectRebuildWhenSearchModeIsNotIndex() {
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(mockItemRepository, ItemSearchMode.LIKE, 2);
+
+        assertThrows(IllegalStateException.class, disabledIndex::rebuild);
+        assertFalse(disabledIndex.getStats().isReady());
+    }
+}
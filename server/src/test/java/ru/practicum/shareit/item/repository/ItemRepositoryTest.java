@@ -6,12 +6,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -40,6 +45,103 @@ class ItemRepositoryTest {
                 savedItem.getDescription().substring(0, savedItem.getDescription().length() - 1), Pageable.unpaged()
         );
 
-        assertEquals(savedItem.getId(), foundItems.get(0).getId());
+        assertAll(
+                () -> assertEquals(savedItem.getId(), foundItems.get(0).getId()),
+                () -> assertEquals(savedItem.getName(), foundItems.get(0).getName()),
+                () -> assertFalse(testEntityManager.getEntityManager().contains(foundItems.get(0)))
+        );
+    }
+
+    @Test
+    void findAllByRequestIds() {
+        User user = generator.nextObject(User.class);
+        user.setId(0);
+        User savedUser = testEntityManager.persist(user);
+        ItemRequest firstRequest = testEntityManager.persist(
+                new ItemRequest(0, "Нужна дрель", savedUser, LocalDateTime.now(), null)
+        );
+        ItemRequest secondRequest = testEntityManager.persist(
+                new ItemRequest(0, "Нужна пила", savedUser, LocalDateTime.now(), null)
+        );
+        ItemRequest otherRequest = testEntityManager.persist(
+                new ItemRequest(0, "Нужна отвертка", savedUser, LocalDateTime.now(), null)
+        );
+        Item drill = saveItemForRequest(savedUser, "Дрель", firstRequest);
+        Item saw = saveItemForRequest(savedUser, "Пила", secondRequest);
+        saveItemForRequest(savedUser, "Отвертка", otherRequest);
+
+        List<Item> foundItems = itemRepository.findAllByRequestIds(List.of(firstRequest.getId(), secondRequest.getId()));
+
+        assertAll(
+                () -> assertEquals(2, foundItems.size()),
+                () -> assertEquals(drill.getId(), foundItems.get(0).getId()),
+                () -> assertEquals(firstRequest.getId(), foundItems.get(0).getRequestId()),
+                () -> assertEquals(saw.getId(), foundItems.get(1).getId()),
+                () -> assertEquals(secondRequest.getId(), foundItems.get(1).getRequestId())
+        );
+    }
+
+    @Test
+    void shouldNotFindUnavailableItemByName() {
+        User user = generator.nextObject(User.class);
+        user.setId(0);
+        User savedUser = testEntityManager.persist(user);
+
+        Item item = new Item(0, "Пила", "Пила по дереву", false, null);
+        item.setOwner(savedUser);
+        itemRepository.save(item);
+
+        assertTrue(itemRepository.findAvailableByNameOrDescription("пила", Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void findAvailableByNameOrDescriptionAndFreeBetween() {
+        User user = generator.nextObject(User.class);
+        user.setId(0);
+        User savedUser = testEntityManager.persist(user);
+
+        Item bookedItem = new Item(0, "Дрель", "Дрель ударная", true, null);
+        bookedItem.setOwner(savedUser);
+        itemRepository.save(bookedItem);
+        Item freeItem = new Item(0, "Дрель", "Дрель аккумуляторная", true, null);
+        freeItem.setOwner(savedUser);
+        Item savedFreeItem = itemRepository.save(freeItem);
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Booking booking = new Booking();
+        booking.setStart(start.plusHours(1));
+        booking.setEnd(start.plusHours(2));
+        booking.setItem(bookedItem);
+        booking.setBooker(savedUser);
+        booking.setStatus(BookingStatus.APPROVED);
+        testEntityManager.persist(booking);
+        Booking rejectedBooking = new Booking();
+        rejectedBooking.setStart(start);
+        rejectedBooking.setEnd(start.plusDays(1));
+        rejectedBooking.setItem(savedFreeItem);
+        rejectedBooking.setBooker(savedUser);
+        rejectedBooking.setStatus(BookingStatus.REJECTED);
+        testEntityManager.persist(rejectedBooking);
+
+        List<Item> foundInWindow = itemRepository.findAvailableByNameOrDescriptionAndFreeBetween(
+                "дрель", start, start.plusDays(1), BookingIntervalIndex.INACTIVE_BOOKING_STATUSES, Pageable.unpaged()
+        );
+        List<Item> foundOutsideWindow = itemRepository.findAvailableByNameOrDescriptionAndFreeBetween(
+                "дрель", start.plusDays(1), start.plusDays(2), BookingIntervalIndex.INACTIVE_BOOKING_STATUSES,
+                Pageable.unpaged()
+        );
+
+        assertAll(
+                () -> assertEquals(1, foundInWindow.size()),
+                () -> assertEquals(savedFreeItem.getId(), foundInWindow.get(0).getId()),
+                () -> assertEquals(2, foundOutsideWindow.size())
+        );
+    }
+
+    private Item saveItemForRequest(User owner, String name, ItemRequest request) {
+        Item item = new Item(0, name, name, true, null);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return itemRepository.save(item);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ItemDetailsLoaderTest {
+
+    private final PlatformTransactionManager mockTransactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ItemDetailsLoader itemDetailsLoader = new ItemDetailsLoader(
+            mockTransactionManager, meterRegistry, true, 3, 3, 2, 10
+    );
+
+    private final EasyRandom generator = new EasyRandom();
+
+    @AfterEach
+    void afterEach() {
+        itemDetailsLoader.shutdown();
+    }
+
+    @Test
+    void shouldLoadDetailsConcurrentlyInReadOnlyTransactions() {
+        List<Booking> lastBookings = generator.objects(Booking.class, 2).collect(Collectors.toList());
+        List<Booking> nextBookings = generator.objects(Booking.class, 2).collect(Collectors.toList());
+        List<Comment> comments = generator.objects(Comment.class, 2).collect(Collectors.toList());
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        String callerThread = Thread.currentThread().getName();
+
+        ItemDetailsLoader.ItemDetails details = itemDetailsLoader.load(
+                () -> {
+                    assertEquals(callerThread, Thread.currentThread().getName());
+                    return lastBookings;
+                },
+                () -> {
+                    threads.add(Thread.currentThread().getName());
+                    return nextBookings;
+                },
+                () -> {
+                    threads.add(Thread.currentThread().getName());
+                    return comments;
+                }
+        );
+
+        assertAll(
+                () -> assertEquals(lastBookings, details.getLastBookings()),
+                () -> assertEquals(nextBookings, details.getNextBookings()),
+                () -> assertEquals(comments, details.getComments()),
+                () -> assertTrue(threads.stream().allMatch(name -> name.startsWith("item-details-"))),
+                () -> verify(mockTransactionManager, times(2))
+                        .getTransaction(argThat(definition -> definition.isReadOnly())),
+                () -> assertEquals(1, meterRegistry.timer("shareit.items.details.saved").count())
+        );
+    }
+
+    @Test
+    void shouldLoadInCallerThreadOverConcurrentLoadsLimit() {
+        ItemDetailsLoader limitedLoader = new ItemDetailsLoader(
+                mockTransactionManager, meterRegistry, true, 3, 3, 1, 10
+        );
+        Set<String> nestedThreads = ConcurrentHashMap.newKeySet();
+        String callerThread = Thread.currentThread().getName();
+
+        try {
+            limitedLoader.load(
+                    () -> {
+                        limitedLoader.load(
+                                () -> {
+                                    nestedThreads.add(Thread.currentThread().getName());
+                                    return List.of();
+                                },
+                                () -> {
+                                    nestedThreads.add(Thread.currentThread().getName());
+                                    return List.of();
+                                },
+                                () -> {
+                                    nestedThreads.add(Thread.currentThread().getName());
+                                    return List.of();
+                                }
+                        );
+                        return List.of();
+                    },
+                    List::of,
+                    List::of
+            );
+        } finally {
+            limitedLoader.shutdown();
+        }
+
+        assertAll(
+                () -> assertEquals(Set.of(callerThread), nestedThreads),
+                () -> assertEquals(
+                        1, meterRegistry.timer("shareit.items.details.duration", "mode", "sequential").count()
+                )
+        );
+    }
+
+    @Test
+    void shouldRejectConcurrentLoadsLimitExhaustingConnectionPool() {
+        assertThrows(IllegalArgumentException.class, () -> new ItemDetailsLoader(
+                mockTransactionManager, meterRegistry, true, 3, 3, 4, 10
+        ));
+    }
+
+    @Test
+    void shouldRethrowQueryException() {
+        IllegalStateException exception = new IllegalStateException();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> itemDetailsLoader.load(
+                List::of,
+                () -> {
+                    throw exception;
+                },
+                List::of
+        ));
+
+        assertAll(
+                () -> assertSame(exception, thrown),
+                () -> verify(mockTransactionManager, atLeastOnce()).rollback(any())
+        );
+    }
+}
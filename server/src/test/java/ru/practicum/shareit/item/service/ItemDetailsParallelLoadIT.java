@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingDetails;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Параллельная загрузка деталей вещей под нагрузкой, превышающей пул соединений:
+ * вызывающих потоков больше, чем соединений, и ни один не должен ждать соединения до таймаута.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-details-parallel",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=10000",
+        "shareit.items.details.parallel.enabled=true",
+        "shareit.items.details.parallel.pool-size=4",
+        "shareit.items.details.parallel.max-concurrent-loads=1"
+})
+class ItemDetailsParallelLoadIT {
+    private static final int CALLERS = 16;
+    private static final int CALLS_PER_CALLER = 5;
+    private static final int ITEMS_COUNT = 5;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User owner;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(new User(0, "Владелец", "owner-" + System.nanoTime() + "@mail.ru"));
+        User booker = userRepository.save(new User(0, "Арендатор", "booker-" + System.nanoTime() + "@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = Item.builder().name("Дрель " + i).description("Дрель").available(true).owner(owner).build();
+            items.add(itemRepository.save(item));
+            bookingRepository.save(Booking.builder()
+                    .item(item).booker(booker).start(now.minusDays(2)).end(now.minusDays(1))
+                    .status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder()
+                    .item(item).booker(booker).start(now.plusDays(1)).end(now.plusDays(2))
+                    .status(BookingStatus.APPROVED).build());
+            commentRepository.save(Comment.builder()
+                    .item(item).author(booker).text("Хорошая").created(now).build());
+        }
+    }
+
+    @Test
+    void shouldLoadOwnerItemsConcurrentlyWithoutExhaustingConnections() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<List<ItemBookingDetails>>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS * CALLS_PER_CALLER; i++) {
+                int itemId = items.get(i % ITEMS_COUNT).getId();
+                results.add(callers.submit(i % 2 == 0
+                        ? () -> itemService.getAllItemsByOwnerId(owner.getId(), 0, ITEMS_COUNT)
+                        : () -> List.of(itemService.getItem(itemId, owner.getId()))
+                ));
+            }
+
+            for (Future<List<ItemBookingDetails>> result : results) {
+                for (ItemBookingDetails details : result.get(30, TimeUnit.SECONDS)) {
+                    assertAll(
+                            () -> assertNotNull(details.getLastBooking()),
+                            () -> assertNotNull(details.getNextBooking()),
+                            () -> assertEquals(1, details.getComments().size())
+                    );
+                }
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue(meterRegistry.timer("shareit.items.details.duration", "mode", "parallel").count() > 0);
+    }
+}
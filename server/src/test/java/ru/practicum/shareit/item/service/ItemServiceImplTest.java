@@ -1,22 +1,39 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemSearchCache;
+import ru.practicum.shareit.item.dto.ItemDTO;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.index.ItemNameSuggester;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemBookingDetails;
+import ru.practicum.shareit.item.model.ItemSearchMode;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -35,10 +52,19 @@ class ItemServiceImplTest {
     private final BookingRepository mockBookingRepository = mock(BookingRepository.class);
     private final CommentRepository mockCommentRepository = mock(CommentRepository.class);
     private final ItemRequestRepository mockItemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemSearchIndex mockItemSearchIndex = mock(ItemSearchIndex.class);
+    private final ItemNameSuggester mockItemNameSuggester = mock(ItemNameSuggester.class);
+    private final ApplicationEventPublisher mockEventPublisher = mock(ApplicationEventPublisher.class);
 
     private final ItemService itemService = new ItemServiceImpl(
-            mockItemRepository, mockUserRepository, mockBookingRepository,
-            mockCommentRepository, mockItemRequestRepository
+            mockItemRepository, disabledUserCache(mockUserRepository), mockBookingRepository,
+            mockCommentRepository, mockItemRequestRepository,
+            new BookingIntervalIndex(mockBookingRepository, true, Duration.ofMinutes(5)),
+            new ItemDetailsLoader(
+                    mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 1, 1, 1, 10
+            ),
+            mockItemSearchIndex, mockItemNameSuggester, disabledItemSearchCache(), disabledItemDetailsCache(),
+            mockEventPublisher, ItemSearchMode.LIKE
     );
 
     private final EasyRandom generator = new EasyRandom();
@@ -63,7 +89,8 @@ class ItemServiceImplTest {
 
         assertAll(
                 () -> assertEquals(item, addedItem),
-                () -> verify(mockItemRequestRepository, times(1)).findById(anyInt())
+                () -> verify(mockItemRequestRepository, times(1)).findById(anyInt()),
+                () -> verify(mockEventPublisher, times(1)).publishEvent(ItemChangedEvent.of(item))
         );
     }
 
@@ -79,6 +106,26 @@ class ItemServiceImplTest {
         assertEquals(item, updatedItem);
     }
 
+    @Test
+    void shouldPublishPreviousNameAndDescriptionAfterUpdate() {
+        Item storedItem = generator.nextObject(Item.class);
+        storedItem.setOwner(user);
+        String previousName = storedItem.getName();
+        String previousDescription = storedItem.getDescription();
+        Item item = new Item();
+        item.setId(storedItem.getId());
+        item.setName("Дрель");
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(storedItem));
+        when(mockItemRepository.save(any(Item.class))).thenReturn(storedItem);
+
+        itemService.updateItem(item, user.getId());
+
+        verify(mockEventPublisher, times(1)).publishEvent(new ItemChangedEvent(
+                storedItem.getId(), "Дрель", previousDescription, storedItem.getAvailable(),
+                previousName, previousDescription, storedItem.getRequestId(), user.getId()
+        ));
+    }
+
     @Test
     void getItem() {
         Item item = generator.nextObject(Item.class);
@@ -109,6 +156,42 @@ class ItemServiceImplTest {
 
     }
 
+    @Test
+    void getAvailability() {
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(true);
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(mockBookingRepository.findIntervalsByItemIdAndStatusNotIn(anyInt(), anyList())).thenReturn(List.of(
+                new BookingInterval(1, from.plusDays(1), from.plusDays(2))
+        ));
+
+        List<FreeInterval> freeIntervals = itemService.getAvailability(
+                item.getId(), user.getId(), from, from.plusDays(3)
+        );
+
+        assertEquals(List.of(
+                new FreeInterval(from, from.plusDays(1).minusNanos(1_000)),
+                new FreeInterval(from.plusDays(2).plusNanos(1_000), from.plusDays(3))
+        ), freeIntervals);
+    }
+
+    @Test
+    void shouldReturnEmptyAvailabilityWhenItemIsNotAvailable() {
+        Item item = generator.nextObject(Item.class);
+        item.setAvailable(false);
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        LocalDateTime from = LocalDateTime.now();
+
+        assertAll(
+                () -> assertTrue(itemService.getAvailability(item.getId(), user.getId(), from, from.plusDays(1)).isEmpty()),
+                () -> assertThrows(
+                        IllegalArgumentException.class,
+                        () -> itemService.getAvailability(item.getId(), user.getId(), from, from)
+                )
+        );
+    }
+
     @Test
     void getAllItemsByOwnerId() {
         int itemId = generator.nextInt();
@@ -163,15 +246,126 @@ class ItemServiceImplTest {
                 .thenReturn(items);
 
         List<Item> foundItems = itemService
-                .getAvailableItemsByText(generator.nextObject(String.class), 0, 10);
+                .getAvailableItemsByText(generator.nextObject(String.class), null, null, 0, 10);
 
         assertEquals(items, foundItems);
     }
 
+    @Test
+    void getAvailableItemsByTextInWindow() {
+        List<Item> items = generator.objects(Item.class, 10).collect(Collectors.toList());
+        LocalDateTime start = LocalDateTime.now();
+        when(mockItemRepository.findAvailableByNameOrDescriptionAndFreeBetween(
+                anyString(), eq(start), eq(start.plusDays(1)), anyList(), any(Pageable.class)
+        )).thenReturn(items);
+
+        List<Item> foundItems = itemService
+                .getAvailableItemsByText(generator.nextObject(String.class), start, start.plusDays(1), 0, 10);
+
+        assertAll(
+                () -> assertEquals(items, foundItems),
+                () -> assertThrows(IllegalArgumentException.class, () -> itemService
+                        .getAvailableItemsByText(generator.nextObject(String.class), start, null, 0, 10)),
+                () -> verify(mockItemRepository, never()).findAvailableByNameOrDescription(anyString(), any(Pageable.class))
+        );
+    }
+
+    @Test
+    void getAvailableItemsByTextInFullTextMode() {
+        ItemService fullTextItemService = new ItemServiceImpl(
+                mockItemRepository, disabledUserCache(mockUserRepository), mockBookingRepository,
+                mockCommentRepository, mockItemRequestRepository,
+                new BookingIntervalIndex(mockBookingRepository, true, Duration.ofMinutes(5)),
+                new ItemDetailsLoader(
+                        mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 1, 1, 1, 10
+                ),
+                mockItemSearchIndex, mockItemNameSuggester, disabledItemSearchCache(), disabledItemDetailsCache(),
+                mockEventPublisher, ItemSearchMode.FULL_TEXT
+        );
+        List<Item> items = generator.objects(Item.class, 10).collect(Collectors.toList());
+        when(mockItemRepository.findAvailableByFullText(anyString(), any(Pageable.class))).thenReturn(items);
+
+        List<Item> foundItems = fullTextItemService
+                .getAvailableItemsByText(generator.nextObject(String.class), null, null, 0, 10);
+
+        assertAll(
+                () -> assertEquals(items, foundItems),
+                () -> verify(mockItemRepository, never()).findAvailableByNameOrDescription(anyString(), any(Pageable.class))
+        );
+    }
+
+    @Test
+    void getAvailableItemsByTextInIndexMode() {
+        ItemService indexItemService = new ItemServiceImpl(
+                mockItemRepository, disabledUserCache(mockUserRepository), mockBookingRepository,
+                mockCommentRepository, mockItemRequestRepository,
+                new BookingIntervalIndex(mockBookingRepository, true, Duration.ofMinutes(5)),
+                new ItemDetailsLoader(
+                        mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 1, 1, 1, 10
+                ),
+                mockItemSearchIndex, mockItemNameSuggester, disabledItemSearchCache(), disabledItemDetailsCache(),
+                mockEventPublisher, ItemSearchMode.INDEX
+        );
+        Item first = generator.nextObject(Item.class);
+        Item second = generator.nextObject(Item.class);
+        when(mockItemSearchIndex.supports(anyString())).thenReturn(true);
+        when(mockItemSearchIndex.search(anyString(), eq(10), eq(10)))
+                .thenReturn(List.of(second.getId(), first.getId()));
+        when(mockItemRepository.findAllById(anyList())).thenReturn(List.of(first, second));
+
+        List<Item> foundItems = indexItemService.getAvailableItemsByText("дрель", null, null, 15, 10);
+
+        assertAll(
+                () -> assertEquals(List.of(second, first), foundItems),
+                () -> verify(mockItemRepository, never()).findAvailableByNameOrDescription(anyString(), any(Pageable.class))
+        );
+    }
+
+    @Test
+    void shouldServeRepeatedSearchFromCache() {
+        ItemService cachedItemService = new ItemServiceImpl(
+                mockItemRepository, disabledUserCache(mockUserRepository), mockBookingRepository,
+                mockCommentRepository, mockItemRequestRepository,
+                new BookingIntervalIndex(mockBookingRepository, true, Duration.ofMinutes(5)),
+                new ItemDetailsLoader(
+                        mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 1, 1, 1, 10
+                ),
+                mockItemSearchIndex, mockItemNameSuggester,
+                new ItemSearchCache(
+                        new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1), ItemSearchMode.LIKE, 2
+                ),
+                disabledItemDetailsCache(), mockEventPublisher, ItemSearchMode.LIKE
+        );
+        List<Item> items = generator.objects(Item.class, 3).collect(Collectors.toList());
+        when(mockItemRepository.findAvailableByNameOrDescription(anyString(), any(Pageable.class))).thenReturn(items);
+
+        List<Item> firstFound = cachedItemService.getAvailableItemsByText("Дрель", null, null, 0, 10);
+        List<Item> secondFound = cachedItemService.getAvailableItemsByText("дрель", null, null, 0, 10);
+
+        assertAll(
+                () -> assertEquals(toItemDTOs(items), toItemDTOs(firstFound)),
+                () -> assertEquals(toItemDTOs(items), toItemDTOs(secondFound)),
+                () -> verify(mockItemRepository, times(1))
+                        .findAvailableByNameOrDescription(anyString(), any(Pageable.class))
+        );
+    }
+
+    @Test
+    void suggestItemNames() {
+        when(mockItemNameSuggester.isEnabled()).thenReturn(true);
+        when(mockItemNameSuggester.suggest("дре", 5)).thenReturn(List.of("Дрель"));
+
+        assertAll(
+                () -> assertEquals(List.of("Дрель"), itemService.suggestItemNames("дре", 5)),
+                () -> assertTrue(itemService.suggestItemNames(" ", 5).isEmpty()),
+                () -> assertThrows(IllegalArgumentException.class, () -> itemService.suggestItemNames("дре", 0))
+        );
+    }
+
     @Test
     void shouldReturnEmptyListOfItemsWhenSearchTextIsBlank() {
         List<Item> foundItems = itemService
-                .getAvailableItemsByText(" ", 0, 10);
+                .getAvailableItemsByText(" ", null, null, 0, 10);
 
         assertTrue(foundItems.isEmpty());
     }
@@ -187,6 +381,53 @@ class ItemServiceImplTest {
 
         Comment addedComment = itemService.addComment(comment, booking.getItem().getId(), booking.getBooker().getId());
 
-        assertEquals(comment, addedComment);
+        assertAll(
+                () -> assertEquals(comment, addedComment),
+                () -> verify(mockEventPublisher, times(1)).publishEvent(CommentAddedEvent.of(comment))
+        );
+    }
+
+    @Test
+    void shouldServeRepeatedItemViewFromCache() {
+        ItemService cachedItemService = new ItemServiceImpl(
+                mockItemRepository, disabledUserCache(mockUserRepository), mockBookingRepository,
+                mockCommentRepository, mockItemRequestRepository,
+                new BookingIntervalIndex(mockBookingRepository, true, Duration.ofMinutes(5)),
+                new ItemDetailsLoader(
+                        mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), false, 1, 1, 1, 10
+                ),
+                mockItemSearchIndex, mockItemNameSuggester, disabledItemSearchCache(),
+                new ItemDetailsCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1)),
+                mockEventPublisher, ItemSearchMode.LIKE
+        );
+        Item item = generator.nextObject(Item.class);
+        when(mockItemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        List<Comment> comments = generator.objects(Comment.class, 2).collect(Collectors.toList());
+        when(mockCommentRepository.findAllByItemId(anyInt())).thenReturn(comments);
+
+        ItemBookingDetails first = cachedItemService.getItem(item.getId(), user.getId());
+        ItemBookingDetails second = cachedItemService.getItem(item.getId(), user.getId());
+
+        assertAll(
+                () -> assertEquals(ItemMapper.toItemDTO(first), ItemMapper.toItemDTO(second)),
+                () -> verify(mockItemRepository, times(1)).findById(item.getId()),
+                () -> verify(mockCommentRepository, times(1)).findAllByItemId(item.getId())
+        );
+    }
+
+    private static ItemSearchCache disabledItemSearchCache() {
+        return new ItemSearchCache(new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1), ItemSearchMode.LIKE, 2);
+    }
+
+    private static List<ItemDTO> toItemDTOs(List<Item> items) {
+        return items.stream().map(ItemMapper::toItemDTO).collect(Collectors.toList());
+    }
+
+    private static ItemDetailsCache disabledItemDetailsCache() {
+        return new ItemDetailsCache(new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1));
+    }
+
+    private static UserCache disabledUserCache(UserRepository userRepository) {
+        return new UserCache(userRepository, new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SeekCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        SeekCursor cursor = new SeekCursor(LocalDateTime.now(), 42);
+
+        assertEquals(cursor, SeekCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenDecodeBadCursor() {
+        assertThrows(IllegalArgumentException.class, () -> SeekCursor.decode("not a cursor"));
+    }
+}
@@ -8,13 +8,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.dto.ItemDTO;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDTO;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.auth.AuthConstant;
 
@@ -30,6 +34,8 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -118,11 +124,16 @@ class ItemRequestControllerTest {
     @Test
     void getAllRequests() throws Exception {
         when(itemRequestService.getAllRequests(anyInt(), anyInt(), anyInt()))
-                .thenReturn(List.of(itemRequest));
+                .thenReturn(new SliceImpl<>(List.of(itemRequest), PageRequest.of(0, 1), true));
 
         MvcResult result = mockMvc.perform(get("/requests/all")
-                        .header(AuthConstant.OWNER_ID_HEADER, 1))
+                        .header(AuthConstant.OWNER_ID_HEADER, 1)
+                        .param("size", "1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(
+                        SeekCursor.NEXT_CURSOR_HEADER,
+                        new SeekCursor(itemRequest.getCreated(), itemRequest.getId()).encode()
+                ))
                 .andReturn();
         List<ItemRequestDTO> response = objectMapper.readValue(
                 result.getResponse().getContentAsString(),
@@ -133,6 +144,21 @@ class ItemRequestControllerTest {
         checkResultOfGetRequests(itemRequest, response.get(0));
     }
 
+    @Test
+    void getRequestMatches() throws Exception {
+        when(itemRequestService.getRequestMatches(anyInt(), anyInt()))
+                .thenReturn(List.of(new ItemRequestMatch(1, "Нужна дрель", 2, "Дрель", 0.7)));
+
+        mockMvc.perform(get("/requests/matches")
+                        .header(AuthConstant.OWNER_ID_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].requestId").value(1))
+                .andExpect(jsonPath("$[0].requestDescription").value("Нужна дрель"))
+                .andExpect(jsonPath("$[0].itemId").value(2))
+                .andExpect(jsonPath("$[0].itemName").value("Дрель"))
+                .andExpect(jsonPath("$[0].score").value(0.7));
+    }
+
     private void checkResultOfGetRequests(ItemRequest itemRequest, ItemRequestDTO itemRequestDTO) {
         assertAll(
                 () -> assertEquals(itemRequest.getId(), itemRequestDTO.getId()),
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemRequestFeedCacheTest {
+    private static final int REQUESTOR_ID = 1;
+    private static final int OTHER_USER_ID = 2;
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 6, 1, 12, 0);
+
+    private final ItemRequestRepository mockItemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemRepository mockItemRepository = mock(ItemRepository.class);
+
+    @Test
+    void shouldServePagesSkippingOwnRequests() {
+        ItemRequestFeedCache feedCache = loadedCache(4,
+                itemRequest(3, OTHER_USER_ID, NOW),
+                itemRequest(2, REQUESTOR_ID, NOW.minusHours(1)),
+                itemRequest(1, OTHER_USER_ID, NOW.minusHours(2))
+        );
+
+        Slice<ItemRequest> firstPage = feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 1)).orElseThrow();
+        Slice<ItemRequest> secondPage = feedCache.getPage(
+                REQUESTOR_ID, new SeekCursor(NOW, 3), PageRequest.of(0, 1)
+        ).orElseThrow();
+
+        assertAll(
+                () -> assertEquals(List.of(3), ids(firstPage)),
+                () -> assertTrue(firstPage.hasNext()),
+                () -> assertEquals(List.of(1), ids(secondPage)),
+                () -> assertFalse(secondPage.hasNext())
+        );
+    }
+
+    @Test
+    void shouldFallThroughWhenPageIsBeyondBuffer() {
+        ItemRequestFeedCache feedCache = loadedCache(2,
+                itemRequest(3, OTHER_USER_ID, NOW),
+                itemRequest(2, OTHER_USER_ID, NOW.minusHours(1))
+        );
+
+        assertAll(
+                () -> assertTrue(feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 1)).isPresent()),
+                () -> assertTrue(feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(1, 2)).isEmpty())
+        );
+    }
+
+    @Test
+    void shouldAddNewRequestsAndAnsweringItems() {
+        ItemRequestFeedCache feedCache = loadedCache(2, itemRequest(1, OTHER_USER_ID, NOW.minusHours(1)));
+
+        feedCache.onItemRequestAdded(new ItemRequestAddedEvent(2, "Нужна пила", OTHER_USER_ID, NOW));
+        feedCache.onItemChanged(new ItemChangedEvent(10, "Пила", "Ножовка", true, null, null, 2, 5));
+        Slice<ItemRequest> page = feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 5)).orElseThrow();
+
+        feedCache.onItemRequestAdded(new ItemRequestAddedEvent(3, "Нужна дрель", OTHER_USER_ID, NOW.plusHours(1)));
+        Slice<ItemRequest> firstPage = feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 1)).orElseThrow();
+
+        assertAll(
+                () -> assertEquals(List.of(2, 1), ids(page)),
+                () -> assertFalse(page.hasNext()),
+                () -> assertEquals("Пила", page.getContent().get(0).getItems().get(0).getName()),
+                () -> assertTrue(page.getContent().get(1).getItems().isEmpty()),
+                () -> assertEquals(List.of(3), ids(firstPage)),
+                () -> assertTrue(feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 5)).isEmpty())
+        );
+    }
+
+    @Test
+    void shouldPickUpRequestsFromOtherNodesOnScheduledLoad() {
+        ItemRequestFeedCache feedCache = loadedCache(4, itemRequest(1, OTHER_USER_ID, NOW.minusHours(1)));
+        when(mockItemRequestRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                itemRequest(2, OTHER_USER_ID, NOW), itemRequest(1, OTHER_USER_ID, NOW.minusHours(1))
+        )));
+        when(mockItemRepository.findAllByRequestIds(anyList())).thenReturn(List.of(
+                new Item(10, "Пила", "Ножовка", true, 1)
+        ));
+
+        feedCache.scheduledLoad();
+        Slice<ItemRequest> page = feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 5)).orElseThrow();
+
+        assertAll(
+                () -> assertEquals(List.of(2, 1), ids(page)),
+                () -> assertEquals("Пила", page.getContent().get(1).getItems().get(0).getName())
+        );
+    }
+
+    @Test
+    void shouldReplayEventsReceivedDuringLoad() {
+        ItemRequestFeedCache feedCache = loadedCache(4, itemRequest(1, OTHER_USER_ID, NOW.minusHours(1)));
+        when(mockItemRequestRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            feedCache.onItemRequestAdded(new ItemRequestAddedEvent(2, "Нужна пила", OTHER_USER_ID, NOW));
+            feedCache.onItemChanged(new ItemChangedEvent(10, "Пила", "Ножовка", true, null, null, 1, 5));
+            return new PageImpl<>(List.of(itemRequest(1, OTHER_USER_ID, NOW.minusHours(1))));
+        });
+
+        feedCache.load();
+        Slice<ItemRequest> page = feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 5)).orElseThrow();
+
+        assertAll(
+                () -> assertEquals(List.of(2, 1), ids(page)),
+                () -> assertEquals("Пила", page.getContent().get(1).getItems().get(0).getName())
+        );
+    }
+
+    @Test
+    void shouldDropRequestsAndItemsMissingFromDatabaseOnLoad() {
+        ItemRequestFeedCache feedCache = loadedCache(4,
+                itemRequest(2, OTHER_USER_ID, NOW), itemRequest(1, OTHER_USER_ID, NOW.minusHours(1))
+        );
+        feedCache.onItemChanged(new ItemChangedEvent(10, "Пила", "Ножовка", true, null, null, 1, 5));
+        when(mockItemRequestRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                itemRequest(1, OTHER_USER_ID, NOW.minusHours(1))
+        )));
+
+        feedCache.load();
+        Slice<ItemRequest> page = feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 5)).orElseThrow();
+
+        assertAll(
+                () -> assertEquals(List.of(1), ids(page)),
+                () -> assertTrue(page.getContent().get(0).getItems().isEmpty())
+        );
+    }
+
+    @Test
+    void shouldNotServePagesWhenDisabled() {
+        ItemRequestFeedCache feedCache = new ItemRequestFeedCache(
+                mockItemRequestRepository, mockItemRepository, new SimpleMeterRegistry(), false, 10
+        );
+
+        assertTrue(feedCache.getPage(REQUESTOR_ID, null, PageRequest.of(0, 1)).isEmpty());
+    }
+
+    private ItemRequestFeedCache loadedCache(int capacity, ItemRequest... itemRequests) {
+        when(mockItemRequestRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(itemRequests)));
+        when(mockItemRepository.findAllByRequestIds(anyList())).thenReturn(Collections.emptyList());
+        ItemRequestFeedCache feedCache = new ItemRequestFeedCache(
+                mockItemRequestRepository, mockItemRepository, new SimpleMeterRegistry(), true, capacity
+        );
+        feedCache.load();
+
+        return feedCache;
+    }
+
+    private static ItemRequest itemRequest(int id, int requestorId, LocalDateTime created) {
+        User requestor = new User();
+        requestor.setId(requestorId);
+        return new ItemRequest(id, "Запрос " + id, requestor, created, null);
+    }
+
+    private static List<Integer> ids(Slice<ItemRequest> itemRequests) {
+        return itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+    }
+}
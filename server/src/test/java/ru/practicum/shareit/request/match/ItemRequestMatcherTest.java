@@ -0,0 +1,189 @@
+package ru.practicum.shareit.request.match;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemRequestMatcherTest {
+    private static final int OWNER_ID = 1;
+    private static final int REQUESTOR_ID = 2;
+
+    private final ItemRequestRepository mockItemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemRepository mockItemRepository = mock(ItemRepository.class);
+
+    private final ItemRequestMatcher itemRequestMatcher = new ItemRequestMatcher(
+            mockItemRequestRepository, mockItemRepository, true, 2, 0.3
+    );
+
+    @Test
+    void shouldStemWordsAndSkipStopWords() {
+        assertEquals(Set.of("дрел", "ударн"), ItemRequestMatcher.tokensOf("Нужна дрель, ударная"));
+        assertEquals(ItemRequestMatcher.tokensOf("дрели"), ItemRequestMatcher.tokensOf("Дрелью"));
+    }
+
+    @Test
+    void shouldMatchNewRequestWithExistingItems() {
+        itemRequestMatcher.onItemChanged(itemEvent(10, "Дрель", "Ударная дрель", true, null));
+        itemRequestMatcher.onItemChanged(itemEvent(11, "Пила", "Ножовка по дереву", true, null));
+
+        itemRequestMatcher.onItemRequestAdded(requestEvent(100, "Нужна ударная дрель", REQUESTOR_ID));
+        itemRequestMatcher.onItemRequestAdded(requestEvent(101, "Нужна дрель", OWNER_ID));
+
+        List<ItemRequestMatch> matches = itemRequestMatcher.getMatches(OWNER_ID, 10);
+        assertAll(
+                () -> assertEquals(1, matches.size()),
+                () -> assertEquals(100, matches.get(0).getRequestId()),
+                () -> assertEquals(10, matches.get(0).getItemId()),
+                () -> assertEquals(1.0, matches.get(0).getScore(), 1e-9)
+        );
+    }
+
+    @Test
+    void shouldMatchNewItemWithOpenRequestsAndKeepTopMatches() {
+        itemRequestMatcher.onItemRequestAdded(requestEvent(100, "Нужна дрель", REQUESTOR_ID));
+        itemRequestMatcher.onItemRequestAdded(requestEvent(101, "Ищу ударную дрель", REQUESTOR_ID));
+        itemRequestMatcher.onItemRequestAdded(requestEvent(102, "Дрель или шуруповерт на выходные", REQUESTOR_ID));
+        itemRequestMatcher.onItemRequestAdded(requestEvent(103, "Нужна пила", REQUESTOR_ID));
+
+        itemRequestMatcher.onItemChanged(itemEvent(10, "Дрель", "Ударная", true, null));
+
+        assertEquals(List.of(101, 100), requestIds(itemRequestMatcher.getMatches(OWNER_ID, 10)));
+
+        itemRequestMatcher.onItemChanged(new ItemChangedEvent(12, "Дрель", "Ударная", true, null, null, 101, 3));
+
+        assertEquals(List.of(100, 102), requestIds(itemRequestMatcher.getMatches(OWNER_ID, 10)));
+    }
+
+    @Test
+    void shouldForgetOwnerOfRequestAfterItemLosesMatches() {
+        itemRequestMatcher.onItemRequestAdded(requestEvent(100, "Нужна дрель", REQUESTOR_ID));
+        itemRequestMatcher.onItemChanged(itemEvent(10, "Дрель", "Ударная", true, null));
+        assertEquals(1, itemRequestMatcher.trackedRequests());
+
+        itemRequestMatcher.onItemChanged(itemEvent(10, "Пила", "Ручная", true, null));
+
+        assertAll(
+                () -> assertTrue(itemRequestMatcher.getMatches(OWNER_ID, 10).isEmpty()),
+                () -> assertEquals(0, itemRequestMatcher.trackedRequests())
+        );
+    }
+
+    @Test
+    void shouldDropMatchesOfAnsweredRequestsAndUnavailableItems() {
+        itemRequestMatcher.onItemRequestAdded(requestEvent(100, "Нужна дрель", REQUESTOR_ID));
+        itemRequestMatcher.onItemRequestAdded(requestEvent(101, "Нужна пила", REQUESTOR_ID));
+        itemRequestMatcher.onItemChanged(itemEvent(10, "Дрель", "Простая", true, null));
+        itemRequestMatcher.onItemChanged(itemEvent(11, "Пила", "Ручная", true, null));
+
+        itemRequestMatcher.onItemChanged(new ItemChangedEvent(12, "Дрель", "Другая", true, null, null, 100, 3));
+        itemRequestMatcher.onItemChanged(itemEvent(11, "Пила", "Ручная", false, null));
+
+        assertAll(
+                () -> assertTrue(itemRequestMatcher.getMatches(OWNER_ID, 10).isEmpty()),
+                () -> assertTrue(itemRequestMatcher.getMatches(3, 10).isEmpty())
+        );
+    }
+
+    @Test
+    void shouldLoadItemsAndOpenRequests() {
+        User owner = new User(OWNER_ID, "Владелец", "owner@mail.ru");
+        Item item = new Item(10, "Дрель", "Ударная", true, null);
+        item.setOwner(owner);
+        User requestor = new User(REQUESTOR_ID, "Автор", "requestor@mail.ru");
+        when(mockItemRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(item));
+        when(mockItemRequestRepository.findOpenAfterId(anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(new ItemRequest(100, "Нужна дрель", requestor, LocalDateTime.now(), null)));
+
+        itemRequestMatcher.load();
+
+        assertEquals(List.of(100), requestIds(itemRequestMatcher.getMatches(OWNER_ID, 10)));
+    }
+
+    @Test
+    void shouldReplayEventsReceivedDuringLoad() {
+        Item item = new Item(10, "Дрель", "Ударная", true, null);
+        item.setOwner(new User(OWNER_ID, "Владелец", "owner@mail.ru"));
+        User requestor = new User(REQUESTOR_ID, "Автор", "requestor@mail.ru");
+        when(mockItemRepository.findByIdGreaterThanOrderByIdAsc(anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(item));
+        when(mockItemRequestRepository.findOpenAfterId(anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            itemRequestMatcher.onItemChanged(itemEvent(10, "Пила", "Ручная", true, null));
+            return List.of(new ItemRequest(100, "Нужна дрель", requestor, LocalDateTime.now(), null));
+        });
+
+        itemRequestMatcher.load();
+
+        assertAll(
+                () -> assertTrue(itemRequestMatcher.getMatches(OWNER_ID, 10).isEmpty()),
+                () -> assertEquals(0, itemRequestMatcher.trackedRequests())
+        );
+    }
+
+    @Test
+    void shouldRematchOwnerWhenStoredMatchesRunOut() {
+        ItemRequestMatcher singleTopMatcher = new ItemRequestMatcher(
+                mockItemRequestRepository, mockItemRepository, true, 1, 0.3
+        );
+        singleTopMatcher.onItemChanged(itemEvent(10, "Дрель", "", true, null));
+        singleTopMatcher.onItemRequestAdded(requestEvent(100, "Дрель", REQUESTOR_ID));
+        singleTopMatcher.onItemRequestAdded(requestEvent(101, "Дрель ударная", REQUESTOR_ID));
+        singleTopMatcher.onItemRequestAdded(requestEvent(102, "Дрель ударная мощная", REQUESTOR_ID));
+        singleTopMatcher.onItemRequestAdded(requestEvent(103, "Дрель ударная мощная новая", REQUESTOR_ID));
+        singleTopMatcher.onItemRequestAdded(requestEvent(104, "Дрель ударная мощная новая быстрая", REQUESTOR_ID));
+        assertEquals(4, singleTopMatcher.trackedRequests());
+
+        for (int requestId = 100; requestId <= 103; requestId++)
+            singleTopMatcher.onItemChanged(new ItemChangedEvent(requestId, "Пила", "", true, null, null, requestId, 3));
+
+        assertAll(
+                () -> assertEquals(List.of(104), requestIds(singleTopMatcher.getMatches(OWNER_ID, 10))),
+                () -> assertEquals(1, singleTopMatcher.trackedRequests())
+        );
+    }
+
+    @Test
+    void shouldIgnoreEventsWhenDisabled() {
+        ItemRequestMatcher disabledMatcher = new ItemRequestMatcher(
+                mockItemRequestRepository, mockItemRepository, false, 2, 0.3
+        );
+
+        disabledMatcher.onItemRequestAdded(requestEvent(100, "Нужна дрель", REQUESTOR_ID));
+        disabledMatcher.onItemChanged(itemEvent(10, "Дрель", "Ударная", true, null));
+
+        assertEquals(Collections.emptyList(), disabledMatcher.getMatches(OWNER_ID, 10));
+    }
+
+    private static ItemChangedEvent itemEvent(
+            int itemId, String name, String description, boolean available, Integer requestId
+    ) {
+        return new ItemChangedEvent(itemId, name, description, available, null, null, requestId, OWNER_ID);
+    }
+
+    private static ItemRequestAddedEvent requestEvent(int requestId, String description, int requestorId) {
+        return new ItemRequestAddedEvent(requestId, description, requestorId, LocalDateTime.now());
+    }
+
+    private static List<Integer> requestIds(List<ItemRequestMatch> matches) {
+        return matches.stream().map(ItemRequestMatch::getRequestId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.request.repository;
+
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ItemRequestRepositoryTest {
+    private static final Sort FEED_SORT = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private final EasyRandom generator = new EasyRandom();
+
+    @Test
+    void findByRequestorIdNotAfter() {
+        User requestor = persistUser();
+        User otherUser = persistUser();
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        ItemRequest oldest = persistRequest(otherUser, created.minusDays(1));
+        ItemRequest first = persistRequest(otherUser, created);
+        ItemRequest second = persistRequest(otherUser, created);
+        persistRequest(requestor, created.minusHours(1));
+
+        Slice<ItemRequest> firstSlice = itemRequestRepository.findByRequestorIdNot(
+                requestor.getId(), PageRequest.of(0, 2, FEED_SORT)
+        );
+        ItemRequest last = firstSlice.getContent().get(1);
+        Slice<ItemRequest> secondSlice = itemRequestRepository.findByRequestorIdNotAfter(
+                requestor.getId(), last.getCreated(), last.getId(), PageRequest.of(0, 2, FEED_SORT)
+        );
+
+        assertAll(
+                () -> assertEquals(List.of(second.getId(), first.getId()), ids(firstSlice)),
+                () -> assertTrue(firstSlice.hasNext()),
+                () -> assertEquals(List.of(oldest.getId()), ids(secondSlice)),
+                () -> assertFalse(secondSlice.hasNext())
+        );
+    }
+
+    @Test
+    void findOpenAfterId() {
+        User requestor = persistUser();
+        User owner = persistUser();
+        ItemRequest answered = persistRequest(requestor, LocalDateTime.now());
+        ItemRequest open = persistRequest(requestor, LocalDateTime.now());
+        Item item = new Item(0, "Дрель", "Простая дрель", true, null);
+        item.setOwner(owner);
+        item.setRequest(answered);
+        testEntityManager.persist(item);
+
+        List<ItemRequest> openRequests = itemRequestRepository.findOpenAfterId(0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(open.getId()), openRequests.stream().map(ItemRequest::getId).collect(Collectors.toList()));
+    }
+
+    private User persistUser() {
+        User user = generator.nextObject(User.class);
+        user.setId(0);
+        return testEntityManager.persist(user);
+    }
+
+    private ItemRequest persistRequest(User requestor, LocalDateTime created) {
+        return testEntityManager.persist(new ItemRequest(0, "Нужна дрель", requestor, created, null));
+    }
+
+    private static List<Integer> ids(Slice<ItemRequest> itemRequests) {
+        return itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+    }
+}
@@ -1,33 +1,61 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
+import ru.practicum.shareit.request.cache.ItemRequestFeedCache;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.match.ItemRequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemRequestServiceImplTest {
 
     private final ItemRequestRepository mockItemRequestRepository = mock(ItemRequestRepository.class);
     private final UserRepository mockUserRepository = mock(UserRepository.class);
+    private final ItemRepository mockItemRepository = mock(ItemRepository.class);
+    private final ItemRequestFeedCache mockItemRequestFeedCache = mock(ItemRequestFeedCache.class);
+    private final ItemRequestMatcher mockItemRequestMatcher = mock(ItemRequestMatcher.class);
+    private final ApplicationEventPublisher mockEventPublisher = mock(ApplicationEventPublisher.class);
 
     private final ItemRequestService itemRequestService = new ItemRequestServiceImpl(
-            mockItemRequestRepository, mockUserRepository
+            mockItemRequestRepository, disabledUserCache(mockUserRepository), mockItemRepository,
+            mockItemRequestFeedCache, mockItemRequestMatcher, mockEventPublisher
     );
 
     private final EasyRandom generator = new EasyRandom();
@@ -38,6 +66,7 @@ class ItemRequestServiceImplTest {
     void beforeEach() {
         user = generator.nextObject(User.class);
         when(mockUserRepository.findById(anyInt())).thenReturn(Optional.of(user));
+        when(mockItemRequestFeedCache.getPage(anyInt(), any(), any(Pageable.class))).thenReturn(Optional.empty());
     }
 
     @Test
@@ -47,13 +76,16 @@ class ItemRequestServiceImplTest {
 
         ItemRequest addedItemRequest = itemRequestService.addRequest(itemRequest, user.getId());
 
-        assertEquals(itemRequest, addedItemRequest);
+        assertAll(
+                () -> assertEquals(itemRequest, addedItemRequest),
+                () -> verify(mockEventPublisher, times(1)).publishEvent(ItemRequestAddedEvent.of(itemRequest))
+        );
     }
 
     @Test
     void getRequest() {
         ItemRequest itemRequest = generator.nextObject(ItemRequest.class);
-        when(mockItemRequestRepository.findById(anyInt())).thenReturn(Optional.of(itemRequest));
+        when(mockItemRequestRepository.findWithItemsById(anyInt())).thenReturn(Optional.of(itemRequest));
 
         ItemRequest foundItemRequest = itemRequestService.getRequest(itemRequest.getId(), user.getId());
 
@@ -69,18 +101,105 @@ class ItemRequestServiceImplTest {
 
         List<ItemRequest> foundItemRequests = itemRequestService.getAllRequestsByRequestorId(user.getId());
 
-        assertEquals(itemRequests, foundItemRequests);
+        assertEquals(ids(itemRequests), ids(foundItemRequests));
     }
 
     @Test
     void getAllRequests() {
-        Page<ItemRequest> itemRequests = new PageImpl<>(
+        Slice<ItemRequest> itemRequests = new SliceImpl<>(
                 generator.objects(ItemRequest.class, 10).collect(Collectors.toList())
         );
         when(mockItemRequestRepository.findByRequestorIdNot(anyInt(), any(Pageable.class))).thenReturn(itemRequests);
 
-        List<ItemRequest> foundItemRequest = itemRequestService.getAllRequests(user.getId(), 0, 10);
+        Slice<ItemRequest> foundItemRequest = itemRequestService.getAllRequests(user.getId(), 20, 10);
+
+        assertAll(
+                () -> assertEquals(ids(itemRequests.getContent()), ids(foundItemRequest.getContent())),
+                () -> verify(mockItemRequestRepository).findByRequestorIdNot(
+                        eq(user.getId()), argThat(pageable -> pageable.getOffset() == 20)
+                )
+        );
+    }
+
+    @Test
+    void shouldServeGlobalFeedFromCache() {
+        Slice<ItemRequest> itemRequests = new SliceImpl<>(
+                generator.objects(ItemRequest.class, 10).collect(Collectors.toList())
+        );
+        when(mockItemRequestFeedCache.getPage(anyInt(), any(), any(Pageable.class)))
+                .thenReturn(Optional.of(itemRequests));
+
+        Slice<ItemRequest> foundItemRequest = itemRequestService.getAllRequests(user.getId(), 0, 10);
+
+        assertAll(
+                () -> assertEquals(itemRequests, foundItemRequest),
+                () -> verify(mockItemRequestRepository, never()).findByRequestorIdNot(anyInt(), any(Pageable.class))
+        );
+    }
+
+    @Test
+    void getAllRequestsAfterCursor() {
+        Slice<ItemRequest> itemRequests = new SliceImpl<>(
+                generator.objects(ItemRequest.class, 10).collect(Collectors.toList()), PageRequest.of(0, 10), true
+        );
+        SeekCursor after = new SeekCursor(LocalDateTime.now(), 5);
+        when(mockItemRequestRepository.findByRequestorIdNotAfter(
+                anyInt(), any(LocalDateTime.class), anyInt(), any(Pageable.class)
+        )).thenReturn(itemRequests);
+
+        Slice<ItemRequest> foundItemRequest = itemRequestService.getAllRequests(user.getId(), after, 10);
+
+        assertAll(
+                () -> assertEquals(ids(itemRequests.getContent()), ids(foundItemRequest.getContent())),
+                () -> assertTrue(foundItemRequest.hasNext()),
+                () -> verify(mockItemRequestRepository).findByRequestorIdNotAfter(
+                        eq(user.getId()), eq(after.getTimestamp()), eq(5), any(Pageable.class)
+                )
+        );
+    }
+
+    @Test
+    void shouldAttachItemsOfAllRequestsWithOneQuery() {
+        List<ItemRequest> itemRequests = generator.objects(ItemRequest.class, 3).collect(Collectors.toList());
+        List<Item> managedItems = itemRequests.get(0).getItems();
+        ItemRequest first = itemRequests.get(0);
+        ItemRequest second = itemRequests.get(1);
+        Item firstItem = new Item(1, "Дрель", "Простая дрель", true, first.getId());
+        Item secondItem = new Item(2, "Отвертка", "Крестовая", true, first.getId());
+        Item thirdItem = new Item(3, "Пила", "Ножовка", true, second.getId());
+        when(mockItemRequestRepository.findByRequestorIdOrderByCreatedDesc(anyInt())).thenReturn(itemRequests);
+        when(mockItemRepository.findAllByRequestIds(anyList())).thenReturn(List.of(firstItem, secondItem, thirdItem));
+
+        List<ItemRequest> foundItemRequests = itemRequestService.getAllRequestsByRequestorId(user.getId());
+
+        assertAll(
+                () -> assertEquals(List.of(firstItem, secondItem), foundItemRequests.get(0).getItems()),
+                () -> assertEquals(List.of(thirdItem), foundItemRequests.get(1).getItems()),
+                () -> assertEquals(List.of(), foundItemRequests.get(2).getItems()),
+                () -> assertSame(managedItems, first.getItems()),
+                () -> verify(mockItemRepository, times(1)).findAllByRequestIds(anyList())
+        );
+    }
+
+    @Test
+    void getRequestMatches() {
+        List<ItemRequestMatch> matches = List.of(new ItemRequestMatch(1, "Нужна дрель", 2, "Дрель", 0.7));
+        when(mockItemRequestMatcher.isEnabled()).thenReturn(true);
+        when(mockItemRequestMatcher.getMatches(user.getId(), 5)).thenReturn(matches);
+
+        assertAll(
+                () -> assertEquals(matches, itemRequestService.getRequestMatches(user.getId(), 5)),
+                () -> assertThrows(
+                        IllegalArgumentException.class, () -> itemRequestService.getRequestMatches(user.getId(), 0)
+                )
+        );
+    }
+
+    private static UserCache disabledUserCache(UserRepository userRepository) {
+        return new UserCache(userRepository, new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1));
+    }
 
-        assertEquals(itemRequests.getContent(), foundItemRequest);
+    private static List<Integer> ids(List<ItemRequest> itemRequests) {
+        return itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
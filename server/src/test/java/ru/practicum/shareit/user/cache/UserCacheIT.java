@@ -0,0 +1,144 @@
+package ru.practicum.shareit.user.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сервисы со включенными кэшами: пользователь из UserCache - копия вне контекста персистентности,
+ * и ее можно ставить в связи новых вещей, бронирований и запросов.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-user-cache",
+        "shareit.users.cache.enabled=true",
+        "shareit.items.details.cache.enabled=true",
+        "shareit.items.search.cache.enabled=true",
+        "shareit.requests.feed.cache.enabled=true",
+        "shareit.requests.matching.enabled=true"
+})
+class UserCacheIT {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userService.createUser(user("Владелец"));
+        booker = userService.createUser(user("Арендатор"));
+        userCache.getUser(owner.getId());
+        userCache.getUser(booker.getId());
+    }
+
+    @Test
+    void shouldAddItemWithCachedOwner() {
+        Item addedItem = itemService.addItem(item(), owner.getId());
+
+        assertEquals(owner.getId(), itemRepository.findById(addedItem.getId()).orElseThrow().getOwner().getId());
+    }
+
+    @Test
+    void shouldAddBookingWithCachedBooker() {
+        Item addedItem = itemService.addItem(item(), owner.getId());
+        Booking booking = Booking.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        Booking addedBooking = bookingService.addBooking(booking, booker.getId(), addedItem.getId());
+
+        assertEquals(booker.getId(), bookingRepository.findById(addedBooking.getId()).orElseThrow().getBooker().getId());
+    }
+
+    @Test
+    void shouldAddRequestWithCachedRequestor() {
+        ItemRequest addedItemRequest = itemRequestService.addRequest(
+                ItemRequest.builder().description("Нужна дрель").build(), booker.getId()
+        );
+
+        assertEquals(
+                booker.getId(),
+                itemRequestRepository.findById(addedItemRequest.getId()).orElseThrow().getRequestor().getId()
+        );
+    }
+
+    @Test
+    void shouldReturnUpdatedUserAfterCommit() {
+        User update = new User(owner.getId(), "Новое имя", null);
+
+        userService.updateUser(update);
+
+        assertEquals("Новое имя", userCache.getUser(owner.getId()).getName());
+    }
+
+    @Test
+    void shouldThrowUserNotFoundExceptionWhenCachedUserDeletedElsewhere() {
+        // удаление мимо сервиса: событие не публикуется, как при удалении на другом узле
+        userRepository.deleteById(booker.getId());
+
+        assertThrows(
+                UserNotFoundException.class,
+                () -> itemRequestService.addRequest(
+                        ItemRequest.builder().description("Нужна дрель").build(), booker.getId()
+                )
+        );
+        assertThrows(UserNotFoundException.class, () -> userCache.getUser(booker.getId()));
+    }
+
+    private static User user(String name) {
+        return new User(0, name, UUID.randomUUID() + "@mail.ru");
+    }
+
+    private static Item item() {
+        return Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+    private static final int USER_ID = 1;
+
+    private final UserRepository mockUserRepository = mock(UserRepository.class);
+
+    private final UserCache userCache = new UserCache(
+            mockUserRepository, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5)
+    );
+
+    @Test
+    void shouldLoadUserOnce() {
+        User user = new User(USER_ID, "Иван", "ivan@mail.ru");
+        when(mockUserRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        User firstUser = userCache.getUser(USER_ID);
+        User secondUser = userCache.getUser(USER_ID);
+
+        assertAll(
+                () -> assertEquals(USER_ID, secondUser.getId()),
+                () -> assertEquals("Иван", secondUser.getName()),
+                () -> assertEquals("ivan@mail.ru", secondUser.getEmail()),
+                () -> assertNotSame(user, firstUser),
+                () -> assertNotSame(firstUser, secondUser),
+                () -> verify(mockUserRepository, times(1)).findById(USER_ID)
+        );
+    }
+
+    @Test
+    void shouldNotKeepChangesOfReturnedCopy() {
+        when(mockUserRepository.findById(USER_ID)).thenReturn(Optional.of(new User(USER_ID, "Иван", "ivan@mail.ru")));
+
+        userCache.getUser(USER_ID).setName("Петр");
+
+        assertEquals("Иван", userCache.getUser(USER_ID).getName());
+    }
+
+    @Test
+    void shouldNotCacheUnknownUser() {
+        when(mockUserRepository.findById(USER_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new User(USER_ID, "Иван", "ivan@mail.ru")));
+
+        assertThrows(UserNotFoundException.class, () -> userCache.getUser(USER_ID));
+        assertEquals(USER_ID, userCache.getUser(USER_ID).getId());
+    }
+
+    @Test
+    void shouldReloadUserAfterUserChanged() {
+        when(mockUserRepository.findById(USER_ID))
+                .thenReturn(Optional.of(new User(USER_ID, "Иван", "ivan@mail.ru")))
+                .thenReturn(Optional.of(new User(USER_ID, "Петр", "ivan@mail.ru")));
+        userCache.getUser(USER_ID);
+
+        userCache.onUserChanged(UserChangedEvent.of(USER_ID));
+
+        assertEquals("Петр", userCache.getUser(USER_ID).getName());
+    }
+
+    @Test
+    void shouldNotCacheUserLoadedBeforeConcurrentChange() {
+        when(mockUserRepository.findById(USER_ID))
+                .thenAnswer(invocation -> {
+                    userCache.onUserChanged(UserChangedEvent.of(USER_ID));
+                    return Optional.of(new User(USER_ID, "Иван", "ivan@mail.ru"));
+                })
+                .thenReturn(Optional.of(new User(USER_ID, "Петр", "ivan@mail.ru")));
+
+        assertEquals("Иван", userCache.getUser(USER_ID).getName());
+        assertEquals("Петр", userCache.getUser(USER_ID).getName());
+    }
+
+    @Test
+    void shouldLoadUserEveryTimeWhenDisabled() {
+        UserCache disabledUserCache = new UserCache(
+                mockUserRepository, new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(5)
+        );
+        User user = new User(USER_ID, "Иван", "ivan@mail.ru");
+        when(mockUserRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        assertSame(user, disabledUserCache.getUser(USER_ID));
+        disabledUserCache.getUser(USER_ID);
+
+        verify(mockUserRepository, times(2)).findById(USER_ID);
+    }
+}
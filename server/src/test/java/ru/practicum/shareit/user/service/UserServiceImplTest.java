@@ -1,11 +1,16 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.event.UserChangedEvent;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -20,7 +25,13 @@ class UserServiceImplTest {
 
     private final UserRepository mockUserRepository = mock(UserRepository.class);
 
-    private final UserService userService = new UserServiceImpl(mockUserRepository);
+    private final ApplicationEventPublisher mockEventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final UserService userService = new UserServiceImpl(
+            mockUserRepository,
+            new UserCache(mockUserRepository, new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1)),
+            mockEventPublisher
+    );
 
     private final EasyRandom generator = new EasyRandom();
 
@@ -44,7 +55,10 @@ class UserServiceImplTest {
 
         User updatedUser = userService.updateUser(generator.nextObject(User.class));
 
-        assertEquals(userForUpdate, updatedUser);
+        assertAll(
+                () -> assertEquals(userForUpdate, updatedUser),
+                () -> verify(mockEventPublisher).publishEvent(UserChangedEvent.of(userForUpdate.getId()))
+        );
     }
 
     @Test
@@ -98,7 +112,8 @@ class UserServiceImplTest {
 
         assertAll(
                 () -> assertDoesNotThrow(() -> userService.deleteUser(user.getId())),
-                () -> verify(mockUserRepository, times(1)).delete(any(User.class))
+                () -> verify(mockUserRepository, times(1)).delete(any(User.class)),
+                () -> verify(mockEventPublisher).publishEvent(UserChangedEvent.of(user.getId()))
         );
     }
 
@@ -0,0 +1,107 @@
+-- Запросы репозиториев в том виде, в котором их формирует Hibernate.
+\set booker 4242
+\set owner 4242
+\set item 42420
+\set requestor 4242
+
+\echo 'BookingRepository.findAllByBookerIdOrderByStartDescIdDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = :booker ORDER BY b.start_date DESC, b.id DESC LIMIT 10 OFFSET 20;
+
+\echo 'BookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = :booker AND b.status = 'WAITING' ORDER BY b.start_date DESC, b.id DESC LIMIT 10;
+
+\echo 'BookingRepository.findAllByBookerIdAndStateAfter'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b
+WHERE b.booker_id = :booker
+  AND (b.start_date < TIMESTAMP '2023-06-01' OR (b.start_date = TIMESTAMP '2023-06-01' AND b.id < 500000))
+ORDER BY b.start_date DESC, b.id DESC LIMIT 10;
+
+\echo 'BookingRepository.findAllByItemOwnerIdAndStateAfter'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner
+ORDER BY b.start_date DESC, b.id DESC LIMIT 10;
+
+\echo 'BookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = :owner AND b.status = 'WAITING'
+ORDER BY b.start_date DESC, b.id DESC LIMIT 10;
+
+\echo 'BookingRepository.findAllOverlappingByItemIdAndStatusNotIn'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b
+WHERE b.item_id = :item
+  AND b.start_date <= TIMESTAMP '2023-08-05' AND b.end_date >= TIMESTAMP '2023-08-01'
+  AND b.status NOT IN ('REJECTED', 'CANCELED');
+
+\echo 'BookingRepository.findIntervalsByItemIdAndStatusNotIn'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.id, b.start_date, b.end_date FROM bookings b
+WHERE b.item_id = :item AND b.status NOT IN ('REJECTED', 'CANCELED');
+
+\echo 'BookingRepository.findLastByItemIdsAndItemOwnerIdAndStartIsBeforeAndStatusNotIn'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = i.id AND b.start_date < TIMESTAMP '2023-06-01' AND b.status NOT IN ('REJECTED', 'CANCELED')
+    ORDER BY b.start_date DESC, b.id DESC LIMIT 1
+) FROM items i WHERE i.owner_id = :owner;
+
+\echo 'BookingRepository.findFirstByItemIdAndBookerIdAndEndIsBefore'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b
+WHERE b.item_id = :item AND b.booker_id = :booker AND b.end_date < TIMESTAMP '2023-12-01'
+LIMIT 1;
+
+\echo 'ItemRepository.findByOwnerId'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i WHERE i.owner_id = :owner ORDER BY i.id LIMIT 10;
+
+\echo 'CommentRepository.findAllByItemIdInOrderByIdAsc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM comments c
+WHERE c.item_id IN (SELECT i.id FROM items i WHERE i.owner_id = :owner)
+ORDER BY c.id;
+
+\echo 'ItemRequestRepository.findByRequestorIdOrderByCreatedDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM requests r WHERE r.requestor_id = :requestor ORDER BY r.created DESC;
+
+\echo 'ItemRequestRepository.findByRequestorIdNot'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM requests r WHERE r.requestor_id <> :requestor ORDER BY r.created DESC, r.id DESC LIMIT 10;
+
+\echo 'ItemRequest.items'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i WHERE i.request_id IN (SELECT r.id FROM requests r WHERE r.requestor_id = :requestor);
+
+\echo 'BookingRepository.findAllByStatusAndStartBefore'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.status = 'WAITING' AND b.start_date < TIMESTAMP '2023-06-01' LIMIT 500;
+
+\echo 'BookingRepository.findIdsByStatusInAndEndBefore'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.id FROM bookings b
+WHERE b.status IN ('REJECTED', 'CANCELED') AND b.end_date < TIMESTAMP '2023-06-01'
+LIMIT 500;
+
+-- Прогоны BookingSweeper раз в минуту обычно ничего не находят: просроченные записи уже обработаны.
+\echo 'BookingRepository.findAllByStatusAndStartBefore (пустой прогон)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.status = 'WAITING' AND b.start_date < TIMESTAMP '2022-12-01' LIMIT 500;
+
+\echo 'BookingRepository.findIdsByStatusInAndEndBefore (пустой прогон)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.id FROM bookings b
+WHERE b.status IN ('REJECTED', 'CANCELED') AND b.end_date < TIMESTAMP '2022-12-01'
+LIMIT 500;
+
+-- Проверки внешних ключей comments.author_id, bookings.booker_id, items.owner_id и requests.requestor_id.
+INSERT INTO users (name, email) VALUES ('removed', 'removed@mail.ru');
+\echo 'UserRepository.deleteById'
+EXPLAIN (ANALYZE, BUFFERS)
+DELETE FROM users u WHERE u.email = 'removed@mail.ru';